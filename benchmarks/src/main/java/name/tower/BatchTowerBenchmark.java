@@ -0,0 +1,75 @@
+package name.tower;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times {@link BatchTowerGenerator#generateTowers(List)} with one worker
+ * thread and then with more and more threads, so the results show how
+ * throughput scales with the number of cores. Throughput is reported in names
+ * per second. Thread counts above the number of cores on the machine are not
+ * worth running; narrow the run with, for example:
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar BatchTowerBenchmark -p threads=1,2,4,8
+ * </pre>
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchTowerBenchmark {
+  private static final int BATCH_SIZE = 100_000;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  private int threads;
+
+  private ForkJoinPool pool;
+  private BatchTowerGenerator generator;
+  private List<String> names;
+
+  /**
+   * Build a batch of names between 10 and 40 characters long and a pool with
+   * the given number of threads.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = new ForkJoinPool(threads);
+    generator = new BatchTowerGenerator(pool, threads);
+    names = IntStream.range(0, BATCH_SIZE)
+        .mapToObj(seed -> BenchmarkNames.name(10 + seed % 31, seed))
+        .toList();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public List<String> generateTowers() {
+    return generator.generateTowers(names);
+  }
+}
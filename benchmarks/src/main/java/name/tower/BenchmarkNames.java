@@ -0,0 +1,60 @@
+package name.tower;
+
+import java.util.Random;
+
+/**
+ * Builds the names used by the benchmarks. The names are made from lowercase
+ * letters with a space roughly every six characters, which is close to what
+ * real names look like. A fixed seed is used so that every run times the same
+ * input.
+ * 
+ * @author Promineo
+ *
+ */
+final class BenchmarkNames {
+  private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+  /** The first of the CJK ideographs used for wide names. */
+  private static final int FIRST_IDEOGRAPH = 0x4E00;
+
+  private BenchmarkNames() {}
+
+  /**
+   * Returns a name with the given number of characters.
+   * 
+   * @param length The number of characters in the name.
+   * @param seed The seed for the random number generator.
+   * @return The name.
+   */
+  static String name(int length, long seed) {
+    Random random = new Random(seed);
+    StringBuilder builder = new StringBuilder(length);
+
+    for(int index = 0; index < length; index++) {
+      builder.append(random.nextInt(6) == 0 ? ' '
+          : LETTERS.charAt(random.nextInt(LETTERS.length())));
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Returns a name of CJK ideographs, each two columns wide, with a space
+   * roughly every six characters.
+   * 
+   * @param length The number of characters in the name.
+   * @param seed The seed for the random number generator.
+   * @return The name.
+   */
+  static String wideName(int length, long seed) {
+    Random random = new Random(seed);
+    StringBuilder builder = new StringBuilder(length);
+
+    for(int index = 0; index < length; index++) {
+      builder.append(random.nextInt(6) == 0 ? ' '
+          : (char)(FIRST_IDEOGRAPH + random.nextInt(500)));
+    }
+
+    return builder.toString();
+  }
+}
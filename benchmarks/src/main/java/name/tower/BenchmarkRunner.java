@@ -0,0 +1,44 @@
+package name.tower;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler turned on and writes the results as
+ * JSON to target/jmh-result.json. Any of the usual JMH command line options
+ * can be given to narrow the run, for example:
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar NameTowerBenchmark.generateTower -p nameLength=1000
+ * </pre>
+ * 
+ * @author Promineo
+ *
+ */
+public class BenchmarkRunner {
+
+  /**
+   * @param args JMH command line options.
+   * @throws RunnerException Thrown if the benchmarks fail.
+   * @throws CommandLineOptionException Thrown if the options are not valid.
+   */
+  public static void main(String[] args)
+      throws RunnerException, CommandLineOptionException {
+    // @formatter:off
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .result("target/jmh-result.json")
+        .build();
+    // @formatter:on
+
+    new Runner(options).run();
+  }
+}
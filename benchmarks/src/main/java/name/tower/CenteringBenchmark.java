@@ -0,0 +1,75 @@
+package name.tower;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times each kind of centering on plain ASCII names and on names of two
+ * column CJK characters. Comparing the ASCII results for CHARACTERS here with
+ * the same name lengths in {@link NameTowerBenchmark} shows what centering by
+ * character count costs now that display width centering exists, which
+ * should be nothing. Comparing CHARACTERS with DISPLAY_WIDTH shows what the
+ * width lookups cost.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CenteringBenchmark {
+
+  @Param({"CHARACTERS", "DISPLAY_WIDTH"})
+  private NameTower.Centering centering;
+
+  @Param({"10", "100", "1000"})
+  private int nameLength;
+
+  private NameTower nameTower;
+  private String asciiName;
+  private String wideName;
+
+  /**
+   * Build the names and a NameTower that centers the given way.
+   */
+  @Setup
+  public void setUp() {
+    nameTower = new NameTower(Locale.ROOT, centering);
+    asciiName = BenchmarkNames.name(nameLength, 42);
+    wideName = BenchmarkNames.wideName(nameLength, 42);
+  }
+
+  @Benchmark
+  public String asciiSinglePass() {
+    return nameTower.generateTowerSinglePass(asciiName);
+  }
+
+  @Benchmark
+  public String asciiPipeline() {
+    return nameTower.generateTower(asciiName);
+  }
+
+  @Benchmark
+  public String wideSinglePass() {
+    return nameTower.generateTowerSinglePass(wideName);
+  }
+
+  @Benchmark
+  public String widePipeline() {
+    return nameTower.generateTower(wideName);
+  }
+}
@@ -0,0 +1,108 @@
+package name.tower;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times {@link NameTower#generateTower(String)} from end to end and each of
+ * its stages on its own. Each stage is given the output of the stage before
+ * it, which is built once in {@link #setUp()} so that only the stage itself
+ * is timed.
+ * 
+ * The name lengths go from one character up to a million characters in powers
+ * of ten. Throughput is reported in operations per second, so the numbers can
+ * be used directly as throughput per core. Every stage should take time in
+ * proportion to the name length, so for each stage the score multiplied by
+ * the name length should stay roughly flat from ten thousand characters up.
+ * A stage whose product falls away as the names grow has gone quadratic (as
+ * extractRawRows() once did when it deleted each row from a buffer). The GC
+ * profiler should show no allocation at all for {@link #renderIntoArray()},
+ * which renders into one reused array with a {@link TowerRenderer}.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameTowerBenchmark {
+
+  @Param({"1", "10", "100", "1000", "10000", "100000", "1000000"})
+  private int nameLength;
+
+  private NameTower nameTower = new NameTower();
+  private String name;
+  private String upper;
+  private List<String> rawRows;
+  private List<String> enhanced;
+  private List<String> padded;
+  private TowerRenderer renderer = new TowerRenderer();
+  private char[] tower;
+
+  /**
+   * Build the name and the input to each stage.
+   */
+  @Setup
+  public void setUp() {
+    name = BenchmarkNames.name(nameLength, 42);
+    upper = nameTower.toUpperCase(name);
+    rawRows = nameTower.extractRawRows(upper);
+    enhanced = nameTower.enhanceRawRows(rawRows);
+    padded = nameTower.centerCharactersInRows(enhanced);
+    tower = new char[renderer.towerLength(name)];
+  }
+
+  @Benchmark
+  public String generateTower() {
+    return nameTower.generateTower(name);
+  }
+
+  @Benchmark
+  public String generateTowerSinglePass() {
+    return nameTower.generateTowerSinglePass(name);
+  }
+
+  @Benchmark
+  public int renderIntoArray() {
+    return renderer.render(name, tower, 0);
+  }
+
+  @Benchmark
+  public String toUpperCase() {
+    return nameTower.toUpperCase(name);
+  }
+
+  @Benchmark
+  public List<String> extractRawRows() {
+    return nameTower.extractRawRows(upper);
+  }
+
+  @Benchmark
+  public List<String> enhanceRawRows() {
+    return nameTower.enhanceRawRows(rawRows);
+  }
+
+  @Benchmark
+  public List<String> centerCharactersInRows() {
+    return nameTower.centerCharactersInRows(enhanced);
+  }
+
+  @Benchmark
+  public String convertToStringWithLinefeeds() {
+    return nameTower.convertToStringWithLinefeeds(padded);
+  }
+}
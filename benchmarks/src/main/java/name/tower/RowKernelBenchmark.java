@@ -0,0 +1,62 @@
+package name.tower;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the scalar row kernel against the best one this JVM can run. The fork
+ * is started with the Vector API module, so on a CPU with SIMD registers the
+ * best kernel is the vector kernel. The tower is written to one array that is
+ * reused, so the results show the kernels and not the allocation of the
+ * output. Divide the tower size by the time per operation for bytes per
+ * second.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RowKernelBenchmark {
+
+  @Param({"scalar", "best"})
+  private String kernelName;
+
+  @Param({"1000", "100000", "1000000"})
+  private int nameLength;
+
+  private RowKernel kernel;
+  private byte[] name;
+  private byte[] tower;
+
+  /**
+   * Pick the kernel and build the name and the tower array.
+   */
+  @Setup
+  public void setUp() {
+    kernel =
+        kernelName.equals("scalar") ? RowKernel.scalar() : RowKernel.best();
+    name = BenchmarkNames.name(nameLength, 42)
+        .getBytes(StandardCharsets.ISO_8859_1);
+    tower = new byte[RowKernel.bufferLength(nameLength)];
+  }
+
+  @Benchmark
+  public int render() {
+    return kernel.render(name, tower);
+  }
+}
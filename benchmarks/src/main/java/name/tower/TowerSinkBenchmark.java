@@ -0,0 +1,117 @@
+package name.tower;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times writing a batch of towers to a channel, first the way a caller would
+ * with the String form (generate the String, encode it, wrap it and write it)
+ * and then through a {@link TowerSink}. The channel throws the bytes away, so
+ * only the rendering, the encoding and the copying are timed. Throughput is
+ * reported in names per second.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TowerSinkBenchmark {
+  private static final int BATCH_SIZE = 10_000;
+
+  private final NameTower nameTower = new NameTower();
+  private final DiscardingChannel channel = new DiscardingChannel();
+  private TowerSink sink;
+  private List<String> names;
+
+  /**
+   * Build a batch of names between 10 and 40 characters long.
+   */
+  @Setup
+  public void setUp() {
+    sink = new TowerSink(channel);
+    names = IntStream.range(0, BATCH_SIZE)
+        .mapToObj(seed -> BenchmarkNames.name(10 + seed % 31, seed))
+        .toList();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public long writeStrings() throws IOException {
+    for(String name : names) {
+      String tower = nameTower.generateTower(name) + "\n";
+      channel.write(ByteBuffer.wrap(tower.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    return channel.written;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public long writeThroughSink() throws IOException {
+    for(String name : names) {
+      sink.write(name);
+    }
+
+    sink.flush();
+    return channel.written;
+  }
+
+  /**
+   * A channel that counts the bytes written to it and keeps none of them.
+   */
+  private static class DiscardingChannel implements GatheringByteChannel {
+    private long written;
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      long total = 0;
+
+      for(int index = offset; index < offset + length; index++) {
+        total += write(srcs[index]);
+      }
+
+      return total;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int length = src.remaining();
+      src.position(src.limit());
+      written += length;
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
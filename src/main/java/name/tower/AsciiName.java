@@ -0,0 +1,58 @@
+package name.tower;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * This class is a name made of ASCII bytes, read straight from a ByteBuffer
+ * (a packed batch or a memory-mapped file) without being decoded into a
+ * String. One is meant to be wrapped around name after name, so a batch of
+ * names makes no garbage. The bytes must all be ASCII, since each byte is
+ * taken to be one char.
+ *
+ * @author Promineo
+ *
+ */
+final class AsciiName implements CharSequence {
+  private ByteBuffer bytes;
+  private int start;
+  private int length;
+
+  /**
+   * Point at a name.
+   *
+   * @param bytes The buffer holding the name.
+   * @param start Where in the buffer the name starts.
+   * @param length The number of bytes in the name.
+   */
+  void wrap(ByteBuffer bytes, int start, int length) {
+    this.bytes = bytes;
+    this.start = start;
+    this.length = length;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    Objects.checkIndex(index, length);
+    return (char)bytes.get(start + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int from, int to) {
+    return toString().substring(from, to);
+  }
+
+  @Override
+  public String toString() {
+    byte[] chars = new byte[length];
+    bytes.get(start, chars);
+
+    return new String(chars, StandardCharsets.US_ASCII);
+  }
+}
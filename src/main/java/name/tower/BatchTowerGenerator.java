@@ -0,0 +1,186 @@
+package name.tower;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * This class generates the name towers for many names at once. The towers are
+ * returned in the same order as the names, and each tower is the same as the
+ * one returned by {@link NameTower#generateTower(String)}.
+ *
+ * The names are divided into small chunks. A number of workers are started on
+ * the executor and each worker repeatedly claims the next unclaimed chunk until
+ * there are none left. A worker that gets short names simply claims more
+ * chunks, so the workers stay busy until the very end even when name lengths
+ * vary. Each tower is written to the slot in the result array that matches its
+ * name, so no sorting is needed afterwards.
+ *
+ * Each worker keeps one scratch char array that it renders every tower into,
+ * growing it when a longer tower comes along. So, apart from the finished
+ * Strings, a worker allocates very little once it gets going.
+ *
+ * @author Promineo
+ *
+ */
+public class BatchTowerGenerator {
+  private static final int CHUNKS_PER_WORKER = 8;
+  private static final int MAX_CHUNK_SIZE = 256;
+
+  private final NameTower nameTower;
+  private final Executor executor;
+  private final int parallelism;
+
+  /**
+   * Create a generator that runs on the common pool with one worker per pool
+   * thread and renders towers the way {@link NameTower#NameTower()} does.
+   */
+  public BatchTowerGenerator() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a generator that runs on the common pool with one worker per pool
+   * thread.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public BatchTowerGenerator(NameTower nameTower) {
+    this(nameTower, ForkJoinPool.commonPool(),
+        ForkJoinPool.commonPool().getParallelism());
+  }
+
+  /**
+   * Create a generator that renders towers the way
+   * {@link NameTower#NameTower()} does.
+   *
+   * @param executor The executor that runs the workers.
+   * @param parallelism The number of workers to start for each batch.
+   * @throws IllegalArgumentException Thrown if parallelism is less than one.
+   */
+  public BatchTowerGenerator(Executor executor, int parallelism) {
+    this(new NameTower(), executor, parallelism);
+  }
+
+  /**
+   * Create a generator.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   * @param executor The executor that runs the workers.
+   * @param parallelism The number of workers to start for each batch.
+   * @throws IllegalArgumentException Thrown if parallelism is less than one.
+   */
+  public BatchTowerGenerator(NameTower nameTower, Executor executor,
+      int parallelism) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+    this.executor = Objects.requireNonNull(executor,
+        "Executor must not be null!");
+
+    if(parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Parallelism must be at least one but was " + parallelism);
+    }
+
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * This method generates the name tower for each of the names.
+   *
+   * @param names The names from which to generate the towers.
+   * @return The towers in the same order as the names.
+   * @throws NullPointerException Thrown if any of the names are null.
+   */
+  public List<String> generateTowers(List<String> names) {
+    Objects.requireNonNull(names, "Names must not be null!");
+
+    /* Copy the names so that the workers can get each one in constant time. */
+    String[] nameArray = names.toArray(String[]::new);
+    String[] towers = new String[nameArray.length];
+
+    int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE,
+        nameArray.length / (parallelism * CHUNKS_PER_WORKER)));
+    int numChunks = (nameArray.length + chunkSize - 1) / chunkSize;
+    int numWorkers = Math.min(parallelism, numChunks);
+    AtomicInteger nextChunk = new AtomicInteger();
+
+    List<CompletableFuture<Void>> workers = new ArrayList<>(numWorkers);
+
+    for(int worker = 0; worker < numWorkers; worker++) {
+      workers.add(CompletableFuture.runAsync(
+          () -> renderChunks(nameArray, towers, chunkSize, nextChunk),
+          executor));
+    }
+
+    try {
+      CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new))
+          .join();
+    }
+    catch(CompletionException e) {
+      if(e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      throw e;
+    }
+
+    return Arrays.asList(towers);
+  }
+
+  /**
+   * This method generates the name tower for each of the names in the Stream.
+   * The Stream is collected into a list first.
+   *
+   * @param names The names from which to generate the towers.
+   * @return The towers in the same order as the names.
+   */
+  public List<String> generateTowers(Stream<String> names) {
+    Objects.requireNonNull(names, "Names must not be null!");
+
+    return generateTowers(names.toList());
+  }
+
+  /**
+   * This is the worker loop. It claims chunks of names until there are none
+   * left and renders each name in the chunk into the worker's scratch array.
+   *
+   * @param names All of the names in the batch.
+   * @param towers The result array.
+   * @param chunkSize The number of names in each chunk.
+   * @param nextChunk The number of the next unclaimed chunk.
+   */
+  private void renderChunks(String[] names, String[] towers, int chunkSize,
+      AtomicInteger nextChunk) {
+    char[] scratch = new char[0];
+    int start;
+
+    while((start = nextChunk.getAndIncrement() * chunkSize) < names.length) {
+      int end = Math.min(names.length, start + chunkSize);
+
+      for(int index = start; index < end; index++) {
+        String name = Objects.requireNonNull(names[index],
+            "Name must not be null!");
+        String upper = nameTower.toUpperCase(name);
+        int needed = NameTower.outputLength(upper.length());
+
+        if(scratch.length < needed) {
+          scratch = new char[(int)Math.min(Integer.MAX_VALUE - 8,
+              Math.max(2L * scratch.length, needed))];
+        }
+
+        int length = nameTower.renderSinglePass(upper, scratch);
+
+        towers[index] = length < 0 ? nameTower.generateTower(name)
+            : new String(scratch, 0, length);
+      }
+    }
+  }
+}
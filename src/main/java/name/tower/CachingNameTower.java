@@ -0,0 +1,267 @@
+package name.tower;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class puts a cache in front of {@link NameTower#generateTower(String)}.
+ * When a small set of names is asked for over and over again, those towers are
+ * rendered once and then returned from the cache.
+ *
+ * The cache is bounded by the approximate number of bytes held by the cached
+ * names and towers rather than by the number of entries, since a tower for a
+ * long name is far bigger than one for a short name. The cache is divided into
+ * stripes, each with its own lock, its own share of the byte budget and its
+ * own least recently used order. A name always goes to the same stripe, so
+ * threads asking for different names rarely wait for each other.
+ *
+ * When a new tower does not fit in its stripe, the least recently used towers
+ * are candidates for eviction. But a tower is only let in if its name has been
+ * asked for more often than each of the towers it would push out. How often
+ * each name has been asked for is tracked by a {@link FrequencySketch} (this
+ * is the TinyLFU admission policy). So a flood of names that are each asked
+ * for once cannot push out the popular towers.
+ *
+ * A cache belongs to one {@link NameTower}. The towers are keyed by the name
+ * alone, so towers rendered with another locale or centering must go in a
+ * cache of their own.
+ *
+ * @author Promineo
+ *
+ */
+public class CachingNameTower {
+  /**
+   * The approximate number of bytes used by a cache entry in addition to the
+   * characters in the name and the tower: the String and array headers and
+   * the map entry.
+   */
+  private static final int ENTRY_OVERHEAD = 96;
+
+  /** The assumed average size of an entry, used to size the sketches. */
+  private static final int AVERAGE_ENTRY_BYTES = 256;
+
+  private final NameTower nameTower;
+  private final Stripe[] stripes;
+  private final long maxStripeBytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Create a cache with 16 stripes for towers rendered the way
+   * {@link NameTower#NameTower()} does.
+   *
+   * @param maxBytes The approximate maximum number of bytes to cache.
+   */
+  public CachingNameTower(long maxBytes) {
+    this(new NameTower(), maxBytes);
+  }
+
+  /**
+   * Create a cache with 16 stripes.
+   *
+   * @param nameTower The NameTower that renders the towers in the cache.
+   * @param maxBytes The approximate maximum number of bytes to cache.
+   */
+  public CachingNameTower(NameTower nameTower, long maxBytes) {
+    this(nameTower, maxBytes, 16);
+  }
+
+  /**
+   * Create a cache for towers rendered the way {@link NameTower#NameTower()}
+   * does.
+   *
+   * @param maxBytes The approximate maximum number of bytes to cache.
+   * @param numStripes The number of stripes.
+   * @throws IllegalArgumentException Thrown if either value is less than one.
+   */
+  public CachingNameTower(long maxBytes, int numStripes) {
+    this(new NameTower(), maxBytes, numStripes);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param nameTower The NameTower that renders the towers in the cache.
+   * @param maxBytes The approximate maximum number of bytes to cache.
+   * @param numStripes The number of stripes. More stripes let more threads use
+   *        the cache at the same time but give each stripe a smaller share of
+   *        the byte budget.
+   * @throws IllegalArgumentException Thrown if either value is less than one.
+   */
+  public CachingNameTower(NameTower nameTower, long maxBytes,
+      int numStripes) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+
+    if(maxBytes < 1 || numStripes < 1) {
+      throw new IllegalArgumentException("Maximum bytes (" + maxBytes
+          + ") and number of stripes (" + numStripes
+          + ") must both be at least one");
+    }
+
+    maxStripeBytes = Math.max(1, maxBytes / numStripes);
+    stripes = new Stripe[numStripes];
+
+    int expectedKeys =
+        (int)Math.min(Integer.MAX_VALUE, maxStripeBytes / AVERAGE_ENTRY_BYTES);
+
+    for(int index = 0; index < numStripes; index++) {
+      stripes[index] = new Stripe(expectedKeys);
+    }
+  }
+
+  /**
+   * This method returns the name tower for the given name, from the cache if
+   * it is there. Otherwise the tower is rendered, offered to the cache and
+   * returned.
+   *
+   * @param name The name from which to generate the tower.
+   * @return The name tower as a String.
+   */
+  public String generateTower(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    Stripe stripe = stripes[Math.floorMod(name.hashCode(), stripes.length)];
+    String tower = stripe.get(name);
+
+    if(tower != null) {
+      hits.increment();
+      return tower;
+    }
+
+    misses.increment();
+
+    /* Render outside the lock so the rest of the stripe can still be read. */
+    tower = nameTower.generateTower(name);
+    stripe.offer(name, tower);
+
+    return tower;
+  }
+
+  /**
+   * @return The number of times a tower was found in the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of times a tower was not found in the cache and had to
+   *         be rendered.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of towers that were pushed out of the cache to make
+   *         room for other towers.
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return The number of towers in the cache.
+   */
+  public int size() {
+    int size = 0;
+
+    for(Stripe stripe : stripes) {
+      synchronized(stripe) {
+        size += stripe.entries.size();
+      }
+    }
+
+    return size;
+  }
+
+  /**
+   * @return The approximate number of bytes held by the cache.
+   */
+  public long weightedSize() {
+    long bytes = 0;
+
+    for(Stripe stripe : stripes) {
+      synchronized(stripe) {
+        bytes += stripe.bytes;
+      }
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Returns the approximate number of bytes used by a cache entry.
+   */
+  private static long weigh(String name, String tower) {
+    return 2L * (name.length() + tower.length()) + ENTRY_OVERHEAD;
+  }
+
+  /**
+   * One stripe of the cache. All access is synchronized on the stripe.
+   */
+  private class Stripe {
+    /* Access order puts the least recently used entry first. */
+    private final Map<String, String> entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long bytes;
+
+    Stripe(int expectedKeys) {
+      sketch = new FrequencySketch(expectedKeys);
+    }
+
+    /**
+     * Record the request for the name and return its tower if it is cached.
+     */
+    synchronized String get(String name) {
+      sketch.increment(name);
+      return entries.get(name);
+    }
+
+    /**
+     * Add the tower to the stripe if it fits or if its name is asked for more
+     * often than every tower that has to be evicted to make room for it.
+     */
+    synchronized void offer(String name, String tower) {
+      long weight = weigh(name, tower);
+
+      if(entries.containsKey(name) || weight > maxStripeBytes) {
+        return;
+      }
+
+      int frequency = sketch.frequency(name);
+      List<String> victims = new ArrayList<>();
+      long freed = 0;
+      Iterator<Map.Entry<String, String>> eldest =
+          entries.entrySet().iterator();
+
+      while(bytes - freed + weight > maxStripeBytes) {
+        Map.Entry<String, String> victim = eldest.next();
+
+        if(sketch.frequency(victim.getKey()) >= frequency) {
+          return;
+        }
+
+        victims.add(victim.getKey());
+        freed += weigh(victim.getKey(), victim.getValue());
+      }
+
+      for(String victim : victims) {
+        entries.remove(victim);
+        evictions.increment();
+      }
+
+      entries.put(name, tower);
+      bytes += weight - freed;
+    }
+  }
+}
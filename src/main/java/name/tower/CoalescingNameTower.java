@@ -0,0 +1,105 @@
+package name.tower;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class makes sure that a name tower is only rendered once no matter how
+ * many threads ask for the same name at the same time. The first thread to ask
+ * for a name renders the tower. Any thread that asks for the same name while
+ * that is going on waits for the first thread to finish and then gets the same
+ * tower. Once the tower has been handed out the name is forgotten, so the next
+ * request starts a new rendering.
+ *
+ * This does not cache anything by itself. It can be put in front of a
+ * {@link CachingNameTower} so that a burst of requests for a name that is not
+ * in the cache yet only renders the tower once:
+ *
+ * <pre>
+ * CachingNameTower cache = new CachingNameTower(64 &lt;&lt; 20);
+ * CoalescingNameTower towers = new CoalescingNameTower(cache::generateTower);
+ * </pre>
+ *
+ * @author Promineo
+ *
+ */
+public class CoalescingNameTower {
+  private final Map<String, CompletableFuture<String>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Function<String, String> renderer;
+
+  /**
+   * Create a coalescer in front of {@link NameTower#generateTower(String)}.
+   */
+  public CoalescingNameTower() {
+    this(new NameTower()::generateTower);
+  }
+
+  /**
+   * Create a coalescer in front of the given renderer.
+   *
+   * @param renderer The function that renders a tower from a name.
+   */
+  public CoalescingNameTower(Function<String, String> renderer) {
+    this.renderer = Objects.requireNonNull(renderer,
+        "Renderer must not be null!");
+  }
+
+  /**
+   * This method returns the name tower for the given name. If another thread
+   * is already rendering the tower for the same name, this waits for it and
+   * returns its result. If rendering fails, every waiting thread gets the same
+   * exception.
+   *
+   * @param name The name from which to generate the tower.
+   * @return The name tower as a String.
+   */
+  public String generateTower(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    CompletableFuture<String> mine = new CompletableFuture<>();
+    CompletableFuture<String> existing = inFlight.putIfAbsent(name, mine);
+
+    if(existing != null) {
+      return await(existing);
+    }
+
+    try {
+      String tower = renderer.apply(name);
+      mine.complete(tower);
+      return tower;
+    }
+    catch(RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      inFlight.remove(name, mine);
+    }
+  }
+
+  /**
+   * Wait for another thread to finish rendering and return its tower. If the
+   * other thread failed, its exception is thrown here as well.
+   */
+  private String await(CompletableFuture<String> future) {
+    try {
+      return future.join();
+    }
+    catch(CompletionException e) {
+      if(e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      if(e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package name.tower;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class gives the number of columns a character takes up on a terminal
+ * or in a monospaced font. Most characters take one column. East Asian wide
+ * and fullwidth characters (Chinese, Japanese and Korean ideographs, kana,
+ * Hangul syllables, fullwidth forms and most emoji) take two. Combining marks
+ * and format characters take none, since they are drawn on top of the
+ * character before them.
+ *
+ * Java does not expose the East Asian Width property, so the wide ranges
+ * below are taken from EastAsianWidth.txt in the Unicode Character Database
+ * (the W and F values). Zero width comes from the general category.
+ *
+ * The widths are held in a two-level table. The code point is split into a
+ * high part (the top 13 bits) and a low part (the bottom 8 bits). The high
+ * part picks a block of 256 widths and the low part picks the width within
+ * the block. Most blocks are all ones or all twos, and identical blocks are
+ * stored once, so the whole table is a few tens of kilobytes and a lookup is
+ * two array reads. The table is built the first time it is used, which takes
+ * a fraction of a second, so a NameTower that centers by character count
+ * never loads it.
+ *
+ * @author Promineo
+ *
+ */
+final class DisplayWidth {
+  private static final int BLOCK_BITS = 8;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+  /** Pairs of first and last code points of the wide and fullwidth ranges. */
+  // @formatter:off
+  private static final int[] WIDE = {
+      0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC,
+      0x23F0, 0x23F0, 0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615,
+      0x2648, 0x2653, 0x267F, 0x267F, 0x2693, 0x2693, 0x26A1, 0x26A1,
+      0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE,
+      0x26D4, 0x26D4, 0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5,
+      0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B,
+      0x2728, 0x2728, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755,
+      0x2757, 0x2757, 0x2795, 0x2797, 0x27B0, 0x27B0, 0x27BF, 0x27BF,
+      0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55, 0x2E80, 0x2E99,
+      0x2E9B, 0x2EF3, 0x2F00, 0x2FD5, 0x2FF0, 0x2FFB, 0x3000, 0x303E,
+      0x3041, 0x3096, 0x3099, 0x30FF, 0x3105, 0x312F, 0x3131, 0x318E,
+      0x3190, 0x31E3, 0x31F0, 0x321E, 0x3220, 0x3247, 0x3250, 0x4DBF,
+      0x4E00, 0xA48C, 0xA490, 0xA4C6, 0xA960, 0xA97C, 0xAC00, 0xD7A3,
+      0xF900, 0xFAFF, 0xFE10, 0xFE19, 0xFE30, 0xFE52, 0xFE54, 0xFE66,
+      0xFE68, 0xFE6B, 0xFF01, 0xFF60, 0xFFE0, 0xFFE6, 0x16FE0, 0x16FE4,
+      0x16FF0, 0x16FF1, 0x17000, 0x187F7, 0x18800, 0x18CD5, 0x18D00, 0x18D08,
+      0x1AFF0, 0x1AFF3, 0x1AFF5, 0x1AFFB, 0x1AFFD, 0x1AFFE, 0x1B000, 0x1B122,
+      0x1B150, 0x1B152, 0x1B164, 0x1B167, 0x1B170, 0x1B2FB, 0x1F004, 0x1F004,
+      0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E, 0x1F191, 0x1F19A, 0x1F200, 0x1F202,
+      0x1F210, 0x1F23B, 0x1F240, 0x1F248, 0x1F250, 0x1F251, 0x1F260, 0x1F265,
+      0x1F300, 0x1F320, 0x1F32D, 0x1F335, 0x1F337, 0x1F37C, 0x1F37E, 0x1F393,
+      0x1F3A0, 0x1F3CA, 0x1F3CF, 0x1F3D3, 0x1F3E0, 0x1F3F0, 0x1F3F4, 0x1F3F4,
+      0x1F3F8, 0x1F43E, 0x1F440, 0x1F440, 0x1F442, 0x1F4FC, 0x1F4FF, 0x1F53D,
+      0x1F54B, 0x1F54E, 0x1F550, 0x1F567, 0x1F57A, 0x1F57A, 0x1F595, 0x1F596,
+      0x1F5A4, 0x1F5A4, 0x1F5FB, 0x1F64F, 0x1F680, 0x1F6C5, 0x1F6CC, 0x1F6CC,
+      0x1F6D0, 0x1F6D2, 0x1F6D5, 0x1F6D7, 0x1F6DC, 0x1F6DF, 0x1F6EB, 0x1F6EC,
+      0x1F6F4, 0x1F6FC, 0x1F7E0, 0x1F7EB, 0x1F7F0, 0x1F7F0, 0x1F90C, 0x1F93A,
+      0x1F93C, 0x1F945, 0x1F947, 0x1F9FF, 0x1FA70, 0x1FA7C, 0x1FA80, 0x1FA88,
+      0x1FA90, 0x1FABD, 0x1FABF, 0x1FAC5, 0x1FACE, 0x1FADB, 0x1FAE0, 0x1FAE8,
+      0x1FAF0, 0x1FAF8, 0x20000, 0x2FFFD, 0x30000, 0x3FFFD};
+  // @formatter:on
+
+  /** For each high part, the offset of its block in BLOCKS. */
+  private static final int[] INDEX =
+      new int[(Character.MAX_CODE_POINT >>> BLOCK_BITS) + 1];
+  private static final byte[] BLOCKS;
+
+  static {
+    Map<String, Integer> offsets = new HashMap<>();
+    List<byte[]> blocks = new ArrayList<>();
+    byte[] block = new byte[BLOCK_SIZE];
+    int range = 0;
+
+    for(int high = 0; high < INDEX.length; high++) {
+      for(int low = 0; low < BLOCK_SIZE; low++) {
+        int codePoint = (high << BLOCK_BITS) | low;
+
+        while(range < WIDE.length && WIDE[range + 1] < codePoint) {
+          range += 2;
+        }
+
+        boolean wide = range < WIDE.length && WIDE[range] <= codePoint;
+        block[low] = (byte)(wide ? 2 : isZeroWidth(codePoint) ? 0 : 1);
+      }
+
+      /* A Latin-1 String of the block makes a cheap key for finding twins. */
+      String key = new String(block, StandardCharsets.ISO_8859_1);
+      Integer offset = offsets.get(key);
+
+      if(offset == null) {
+        offset = blocks.size() * BLOCK_SIZE;
+        offsets.put(key, offset);
+        blocks.add(block.clone());
+      }
+
+      INDEX[high] = offset;
+    }
+
+    BLOCKS = new byte[blocks.size() * BLOCK_SIZE];
+
+    for(int index = 0; index < blocks.size(); index++) {
+      System.arraycopy(blocks.get(index), 0, BLOCKS, index * BLOCK_SIZE,
+          BLOCK_SIZE);
+    }
+  }
+
+  private DisplayWidth() {}
+
+  /**
+   * Returns true if the code point is drawn on top of the character before it
+   * or is not drawn at all. The soft hyphen is a format character but is
+   * usually drawn, so it keeps its column.
+   */
+  private static boolean isZeroWidth(int codePoint) {
+    /* Hangul medial vowels and final consonants join the syllable before. */
+    if(codePoint >= 0x1160 && codePoint <= 0x11FF) {
+      return true;
+    }
+
+    int type = Character.getType(codePoint);
+
+    // @formatter:off
+    return codePoint != 0xAD
+        && (type == Character.NON_SPACING_MARK
+            || type == Character.ENCLOSING_MARK
+            || type == Character.FORMAT);
+    // @formatter:on
+  }
+
+  /**
+   * Returns the number of columns taken up by a code point.
+   *
+   * @param codePoint The code point.
+   * @return 0, 1 or 2.
+   */
+  static int of(int codePoint) {
+    return BLOCKS[INDEX[codePoint >>> BLOCK_BITS]
+        + (codePoint & (BLOCK_SIZE - 1))];
+  }
+
+  /**
+   * Returns the number of columns taken up by every code point in the text.
+   *
+   * @param text The text.
+   * @return The number of columns.
+   */
+  static int of(CharSequence text) {
+    int width = 0;
+
+    for(int index = 0; index < text.length();) {
+      int codePoint = Character.codePointAt(text, index);
+      width += of(codePoint);
+      index += Character.charCount(codePoint);
+    }
+
+    return width;
+  }
+
+  /**
+   * Returns true if every code point in the text takes exactly one column.
+   *
+   * @param text The text.
+   * @return true if the text can be centered by counting characters.
+   */
+  static boolean isSingleWidth(CharSequence text) {
+    for(int index = 0; index < text.length();) {
+      int codePoint = Character.codePointAt(text, index);
+
+      if(of(codePoint) != 1) {
+        return false;
+      }
+
+      index += Character.charCount(codePoint);
+    }
+
+    return true;
+  }
+
+  /**
+   * @return The number of bytes in the two levels of the table.
+   */
+  static int tableBytes() {
+    return INDEX.length * Integer.BYTES + BLOCKS.length;
+  }
+}
@@ -0,0 +1,127 @@
+package name.tower;
+
+/**
+ * This class keeps an estimate of how often each key has been seen recently.
+ * It is a count-min sketch: each key is hashed four ways into a table of small
+ * counters and its frequency is the smallest of its four counters. Keys that
+ * share a counter can only push an estimate up, never down, so taking the
+ * smallest of the four keeps the estimate close.
+ * 
+ * The counters are four bits wide, sixteen to a long, so they stop at 15. That
+ * is plenty to tell a popular key from a one-off. After a set number of
+ * increments every counter is halved. This ages the counts so that keys that
+ * were popular a long time ago do not stay popular forever.
+ * 
+ * This class is not thread-safe. {@link CachingNameTower} only uses it while
+ * holding the lock for the stripe that owns the sketch.
+ * 
+ * @author Promineo
+ *
+ */
+class FrequencySketch {
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L,
+      0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_COUNT = 15;
+  private static final int MAX_TABLE_SIZE = 1 << 24;
+
+  private final long[] table;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  /**
+   * Create a sketch sized for the given number of keys.
+   * 
+   * @param expectedKeys The number of keys that are expected to be tracked at
+   *        one time.
+   */
+  FrequencySketch(int expectedKeys) {
+    int keys = Math.min(MAX_TABLE_SIZE, Math.max(16, expectedKeys));
+    int size = Integer.highestOneBit(keys - 1) << 1;
+    table = new long[size];
+    mask = size - 1;
+    sampleSize = 10 * size;
+  }
+
+  /**
+   * Returns the estimated number of times the key has been seen recently.
+   * 
+   * @param key The key.
+   * @return The estimated count, from 0 to 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+
+    for(int hashNum = 0; hashNum < SEEDS.length; hashNum++) {
+      long counters = table[indexOf(hash, hashNum)];
+      int count = (int)((counters >>> offsetOf(hash, hashNum)) & MAX_COUNT);
+      frequency = Math.min(frequency, count);
+    }
+
+    return frequency;
+  }
+
+  /**
+   * Record that the key has been seen. Once enough keys have been recorded,
+   * every counter is halved.
+   * 
+   * @param key The key.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+
+    for(int hashNum = 0; hashNum < SEEDS.length; hashNum++) {
+      int index = indexOf(hash, hashNum);
+      int offset = offsetOf(hash, hashNum);
+
+      if(((table[index] >>> offset) & MAX_COUNT) < MAX_COUNT) {
+        table[index] += 1L << offset;
+        added = true;
+      }
+    }
+
+    if(added && ++additions == sampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Halve every counter.
+   */
+  private void reset() {
+    for(int index = 0; index < table.length; index++) {
+      table[index] = (table[index] >>> 1) & RESET_MASK;
+    }
+
+    additions /= 2;
+  }
+
+  /**
+   * Returns the table index of one of the key's counters.
+   */
+  private int indexOf(int hash, int hashNum) {
+    long h = (hash + SEEDS[hashNum]) * SEEDS[hashNum];
+    h += h >>> 32;
+    return (int)h & mask;
+  }
+
+  /**
+   * Returns the bit offset of one of the key's counters within its long. Each
+   * of the four hashes uses a different four bits of the hash to pick one of
+   * the sixteen counters.
+   */
+  private int offsetOf(int hash, int hashNum) {
+    return ((hash >>> (hashNum << 2)) & 15) << 2;
+  }
+
+  /**
+   * Mix the bits of the hash code so that similar keys spread out.
+   */
+  private static int spread(int hashCode) {
+    int h = hashCode * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,86 @@
+package name.tower;
+
+import java.util.Locale;
+
+/**
+ * This class holds a lookup table that gives, for each Latin-1 character
+ * (0 through 255), the character that appears in a tower: the uppercase form,
+ * or an asterisk for a space. Plain ASCII names, and most Western European
+ * names, are made only of these characters, so one table lookup per character
+ * replaces String.toUpperCase() and leaves the result in a single byte.
+ *
+ * A few Latin-1 characters have no single Latin-1 uppercase form. The German
+ * sharp s becomes "SS", and the micro sign and y with diaeresis become Greek
+ * and Latin Extended characters. Those characters are marked as missing in the
+ * table, and a name that contains one must be rendered some other way.
+ *
+ * The table is built with the root locale. Turkish and Azerbaijani uppercase
+ * 'i' to a dotted capital I, which is not Latin-1, so the table must not be
+ * used for those locales.
+ *
+ * @author Promineo
+ *
+ */
+final class Latin1Case {
+  /** The value in the table for a character that cannot be looked up. */
+  static final int NONE = -1;
+
+  private static final short[] TOWER_CHARS = new short[256];
+
+  static {
+    for(char ch = 0; ch < TOWER_CHARS.length; ch++) {
+      String upper = String.valueOf(ch).toUpperCase(Locale.ROOT);
+
+      if(ch == ' ') {
+        TOWER_CHARS[ch] = '*';
+      }
+      else if(upper.length() == 1 && upper.charAt(0) < TOWER_CHARS.length) {
+        TOWER_CHARS[ch] = (short)upper.charAt(0);
+      }
+      else {
+        TOWER_CHARS[ch] = NONE;
+      }
+    }
+  }
+
+  private Latin1Case() {}
+
+  /**
+   * Returns the character that appears in a tower for the given character.
+   *
+   * @param ch The character from the name.
+   * @return The tower character (0 through 255), or {@link #NONE} if the
+   *         character is not Latin-1 or has no Latin-1 uppercase form.
+   */
+  static int towerChar(int ch) {
+    return ch >= 0 && ch < TOWER_CHARS.length ? TOWER_CHARS[ch] : NONE;
+  }
+
+  /**
+   * Returns true if the table gives the same uppercase forms as the locale.
+   *
+   * @param locale The locale used for uppercasing.
+   * @return true unless the locale is Turkish or Azerbaijani.
+   */
+  static boolean isUsable(Locale locale) {
+    String language = locale.getLanguage();
+    return !language.equals("tr") && !language.equals("az");
+  }
+
+  /**
+   * Returns true if every character in the name can be looked up in the
+   * table.
+   *
+   * @param name The name.
+   * @return true if the name can be rendered with the table.
+   */
+  static boolean canRender(CharSequence name) {
+    for(int index = 0; index < name.length(); index++) {
+      if(towerChar(name.charAt(index)) == NONE) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,172 @@
+package name.tower;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class renders a large batch of names by grouping them by length. All
+ * names of the same length share one {@link TowerLayout}, so the row count,
+ * padding and character positions are worked out once per group instead of
+ * once per name. Each name in a group is then rendered with the same tight
+ * loop over the shared layout.
+ *
+ * Every tower is written into one char array, in the same order as the names,
+ * and an array of offsets records where each tower starts. Since the size of a
+ * tower only depends on the length of its name, every offset is known before
+ * anything is rendered, so the groups can be rendered in any order.
+ *
+ * The towers are the same as the ones returned by
+ * {@link NameTower#generateTower(String)}. Names are grouped by the length of
+ * their uppercased form, since that is what the layout is built from. Names
+ * with surrogate pairs, and names with wide characters when centering by
+ * display width, are rendered by the Stream pipeline and copied in. A group
+ * made up only of such names never builds a layout.
+ *
+ * Those names have to be rendered while the offsets are worked out, since the
+ * size of their towers is not known until then. The time each one takes is
+ * kept and added to the timing of its group, so the timing of a group covers
+ * every name in it.
+ *
+ * @author Promineo
+ *
+ */
+public class LengthGroupedTowerRenderer {
+  private final NameTower nameTower;
+
+  /**
+   * Create a renderer that renders towers the way
+   * {@link NameTower#NameTower()} does.
+   */
+  public LengthGroupedTowerRenderer() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a renderer.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public LengthGroupedTowerRenderer(NameTower nameTower) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+  }
+
+  /**
+   * This method renders the name tower for each of the names.
+   *
+   * @param names The names from which to generate the towers.
+   * @return The towers in the same order as the names, with the timing for
+   *         each group of same-length names.
+   * @throws NullPointerException Thrown if any of the names are null.
+   * @throws IllegalArgumentException Thrown if the towers do not fit in a
+   *         single array.
+   */
+  public TowerBatch render(List<String> names) {
+    Objects.requireNonNull(names, "Names must not be null!");
+
+    int numNames = names.size();
+    String[] uppers = new String[numNames];
+    String[] fallbacks = new String[numNames];
+    int[] offsets = new int[numNames + 1];
+
+    /*
+     * The sort keys hold the uppercased name length in the high 32 bits and
+     * the name index in the low 32 bits. Sorting them puts names of the same
+     * length next to each other, in their original order.
+     */
+    long[] keys = new long[numNames];
+    long total = 0;
+
+    /* Made for the first name that is rendered up front. */
+    long[] fallbackNanos = null;
+
+    for(int index = 0; index < numNames; index++) {
+      String name = Objects.requireNonNull(names.get(index),
+          "Name must not be null!");
+      String upper = nameTower.toUpperCase(name);
+
+      // @formatter:off
+      boolean usesLayout = !upper.isEmpty()
+          && !NameTower.hasSurrogates(upper)
+          && (nameTower.centering() == NameTower.Centering.CHARACTERS
+              || DisplayWidth.isSingleWidth(upper));
+      // @formatter:on
+
+      if(usesLayout) {
+        uppers[index] = upper;
+        total += NameTower.outputLength(upper.length());
+      }
+      else {
+        if(fallbackNanos == null) {
+          fallbackNanos = new long[numNames];
+        }
+
+        long fallbackStart = System.nanoTime();
+        fallbacks[index] = nameTower.generateTower(name);
+        fallbackNanos[index] = System.nanoTime() - fallbackStart;
+        total += fallbacks[index].length();
+      }
+
+      keys[index] = ((long)upper.length() << 32) | index;
+      offsets[index + 1] = checkedLength(total);
+    }
+
+    Arrays.sort(keys);
+
+    char[] chars = new char[offsets[numNames]];
+    List<TowerBatch.BucketStats> bucketStats = new ArrayList<>();
+    int start = 0;
+
+    while(start < numNames) {
+      int nameLength = (int)(keys[start] >>> 32);
+      int end = start;
+
+      while(end < numNames && (int)(keys[end] >>> 32) == nameLength) {
+        end++;
+      }
+
+      long startNanos = System.nanoTime();
+      long renderedUpFront = 0;
+      TowerLayout layout = null;
+
+      for(int key = start; key < end; key++) {
+        int index = (int)keys[key];
+
+        if(uppers[index] != null) {
+          /* Only build the layout if a name in the group can use it. */
+          if(layout == null) {
+            layout = TowerLayout.forLength(nameLength);
+          }
+
+          layout.render(uppers[index], chars, offsets[index]);
+        }
+        else {
+          fallbacks[index].getChars(0, fallbacks[index].length(), chars,
+              offsets[index]);
+          renderedUpFront += fallbackNanos[index];
+        }
+      }
+
+      long nanos = System.nanoTime() - startNanos + renderedUpFront;
+      bucketStats.add(
+          new TowerBatch.BucketStats(nameLength, end - start, nanos));
+      start = end;
+    }
+
+    return new TowerBatch(chars, offsets, bucketStats);
+  }
+
+  /**
+   * Make sure the towers so far still fit in a single array.
+   */
+  private static int checkedLength(long length) {
+    if(length > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "The towers in the batch are too big to fit in a single array!");
+    }
+
+    return (int)length;
+  }
+}
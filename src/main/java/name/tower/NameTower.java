@@ -3,11 +3,26 @@
  */
 package name.tower;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class generates a name tower. So, "First Middle Last" becomes:
@@ -23,15 +38,26 @@ import java.util.stream.IntStream;
  * Here are some considerations:
  * <ul>
  * <li>The first row number is one, not zero.</li>
- * <li>The number of characters in each row is: row * 2 - 1.</li>
+ * <li>The number of characters in each row is: row * 2 - 1. A character is a
+ * Unicode code point, so a surrogate pair (an emoji, for example) counts as
+ * one character and is never split.</li>
  * <li>Spaces <em>within</em> the name are replaced by asterisks.</li>
- * <li>Names are converted to uppercase.</li>
+ * <li>Names are converted to uppercase before the rows are laid out. A
+ * character that becomes two when uppercased (the German sharp s becomes "SS")
+ * takes two places in the tower.</li>
  * <li>The last row is lengthened to the correct length by asterisks if
  * necessary.</li>
  * <li>Characters in each row are separated by spaces.</li>
  * <li>Characters in each row are centered in the row.</li>
+ * <li>An empty name has no rows, so its tower is the empty String.</li>
  * </ul>
  * 
+ * Centering counts every character as one column. That lines the rows up for
+ * most names, but Chinese, Japanese and Korean characters and most emoji take
+ * two columns on a terminal, so those towers come out lopsided. Creating the
+ * NameTower with {@link Centering#DISPLAY_WIDTH} centers the rows by the
+ * number of columns each character actually takes up instead.
+ * 
  * The above rules are repeatedly applied to each row. This kind of "assembly
  * line" approach lends itself to a solution using Java Streams. Therefore a
  * design goal is to use Streams as much as possible.
@@ -39,14 +65,74 @@ import java.util.stream.IntStream;
  * Note that there is no main method as the code execution is executed by a unit
  * test.
  * 
+ * The stage methods are package-private rather than private so that the JMH
+ * benchmarks in the benchmarks module can time each stage on its own.
+ * 
  * @author Promineo
  *
  */
 public class NameTower {
+  /**
+   * How the rows of a tower are centered.
+   */
+  public enum Centering {
+    /** Every character counts as one column. This is the default. */
+    CHARACTERS,
+
+    /**
+     * Every character counts as the number of columns it takes up on a
+     * terminal: two for East Asian wide characters and most emoji, none for
+     * combining marks and one for everything else. See {@link DisplayWidth}.
+     */
+    DISPLAY_WIDTH
+  }
+
+  /**
+   * The most rows a streamed tower can have. A row of a streamed tower is
+   * built in a StringBuilder, and the last row of a tower with r rows can
+   * take up to about 9 * r chars (surrogate pairs, the spaces between them and
+   * the centering spaces for wide characters).
+   */
+  private static final int MAX_STREAMED_ROWS = (Integer.MAX_VALUE - 8) / 16;
+
+  private final Locale locale;
+  private final Centering centering;
+
+  /**
+   * Create a NameTower that uppercases names with the root locale, so the
+   * towers do not depend on the default locale of the machine.
+   */
+  public NameTower() {
+    this(Locale.ROOT);
+  }
+
+  /**
+   * Create a NameTower that uppercases names with the given locale. This only
+   * matters for the few languages with their own uppercasing rules, like
+   * Turkish, where 'i' becomes a dotted capital I.
+   * 
+   * @param locale The locale used to convert names to uppercase.
+   */
+  public NameTower(Locale locale) {
+    this(locale, Centering.CHARACTERS);
+  }
+
+  /**
+   * Create a NameTower that uppercases names with the given locale and
+   * centers the rows the given way.
+   * 
+   * @param locale The locale used to convert names to uppercase.
+   * @param centering How the rows are centered.
+   */
+  public NameTower(Locale locale, Centering centering) {
+    this.locale = Objects.requireNonNull(locale, "Locale must not be null!");
+    this.centering =
+        Objects.requireNonNull(centering, "Centering must not be null!");
+  }
 
   /**
    * This method generates the name tower from the given name as described in
-   * the class introduction.
+   * the class introduction. The tower of an empty name is empty.
    * 
    * @param name The name from which to generate the tower.
    * @return The name tower as a String.
@@ -54,13 +140,886 @@ public class NameTower {
   public String generateTower(String name) {
     Objects.requireNonNull(name, "Name must not be null!");
 
-    List<String> rawRows = extractRawRows(name);
+    String upper = toUpperCase(name);
+    List<String> rawRows = extractRawRows(upper);
     List<String> enhanced = enhanceRawRows(rawRows);
     List<String> padded = centerCharactersInRows(enhanced);
 
     return convertToStringWithLinefeeds(padded);
   }
 
+  /**
+   * This method generates exactly the same name tower as
+   * {@link #generateTower(String)} but does it without the intermediate lists.
+   * The length of the finished tower is a pure function of the name length, so
+   * a single char array of exactly the right size is allocated up front. Each
+   * row is then written directly into the array: the centering spaces, then
+   * the uppercased characters (with spaces turned into asterisks) separated by
+   * spaces, then a linefeed if another row follows.
+   * 
+   * The single pass works on the uppercased name one char at a time, so it
+   * cannot be used for a name with surrogate pairs (which take two chars for
+   * one character). In that rare case, and for an empty name, the work is
+   * handed to {@link #generateTower(String)}.
+   * 
+   * Names made only of Latin-1 characters (which covers plain ASCII) take a
+   * faster path still. Each character is uppercased with a lookup table
+   * straight into a byte array, which becomes the String without any copying
+   * or conversion since Java stores Latin-1 Strings one byte per character.
+   * Short names are rendered from a shared {@link TowerLayout}. Longer names
+   * are rendered by a {@link RowKernel}, which uses SIMD instructions when the
+   * JVM is started with --add-modules jdk.incubator.vector. Every Latin-1
+   * character takes one column, so both kinds of centering give the same
+   * tower for these names.
+   * 
+   * @param name The name from which to generate the tower.
+   * @return The name tower as a String.
+   */
+  public String generateTowerSinglePass(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    if(isLatin1Renderable(name)) {
+      if(name.length() <= TowerLayout.MAX_CACHED_LENGTH) {
+        TowerLayout layout = TowerLayout.forLength(name.length());
+        byte[] tower = new byte[layout.outputLength()];
+        layout.renderLatin1(name, tower, 0);
+
+        return new String(tower, StandardCharsets.ISO_8859_1);
+      }
+
+      byte[] tower = new byte[RowKernel.bufferLength(name.length())];
+      int length = RowKernel.best()
+          .render(name.getBytes(StandardCharsets.ISO_8859_1), tower);
+
+      return new String(tower, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    String upper = toUpperCase(name);
+    char[] tower = new char[outputLength(upper.length())];
+    int length = renderSinglePass(upper, tower);
+
+    return length < 0 ? generateTower(name) : new String(tower);
+  }
+
+  /**
+   * This method does the work for {@link #generateTowerSinglePass(String)}. The
+   * tower is written to the start of the given array, which must be at least
+   * outputLength(upper.length()) long. Passing in the array lets a
+   * caller that renders many names reuse one array for all of them. Names up to
+   * {@link TowerLayout#MAX_CACHED_LENGTH} characters are rendered from a shared
+   * {@link TowerLayout}.
+   * 
+   * @param upper The name from which to generate the tower, already converted
+   *        by {@link #toUpperCase(String)}.
+   * @param tower The array to which the tower is written.
+   * @return The number of characters written, or -1 if the name cannot be
+   *         rendered in a single pass and must be handed to
+   *         {@link #generateTower(String)}.
+   */
+  int renderSinglePass(String upper, char[] tower) {
+    if(upper.isEmpty() || hasSurrogates(upper)) {
+      return -1;
+    }
+
+    /* The layout puts every character in one column. */
+    if(centering == Centering.DISPLAY_WIDTH
+        && !DisplayWidth.isSingleWidth(upper)) {
+      return -1;
+    }
+
+    /* Most names are short enough to use a shared, precomputed layout. */
+    if(upper.length() <= TowerLayout.MAX_CACHED_LENGTH) {
+      TowerLayout layout = TowerLayout.forLength(upper.length());
+      layout.render(upper, tower, 0);
+      return layout.outputLength();
+    }
+
+    int numRows = rowCount(upper.length());
+    int maxLength = rowLength(numRows);
+    int pos = 0;
+    int src = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      if(rowNum > 1) {
+        tower[pos++] = '\n';
+      }
+
+      int padLen = maxLength - rowLength(rowNum);
+      Arrays.fill(tower, pos, pos + padLen, ' ');
+      pos += padLen;
+
+      for(int col = 0; col < rowLength(rowNum); col++) {
+        if(col > 0) {
+          tower[pos++] = ' ';
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        char ch = src < upper.length() ? upper.charAt(src++) : '*';
+        tower[pos++] = ch == ' ' ? '*' : ch;
+      }
+    }
+
+    return pos;
+  }
+
+  /**
+   * This method writes the name tower to the given Appendable (a Writer, a
+   * StringBuilder, etc.) one row at a time instead of returning it as a String.
+   * Only the row being written is held in memory, so the memory used does not
+   * depend on the size of the tower. What is written is exactly the String
+   * returned by {@link #generateTower(String)}: rows are separated by linefeed
+   * characters and there is no linefeed after the last row.
+   * 
+   * The name is read twice: once to count its characters once uppercased,
+   * which fixes the number of rows, and once to write the rows. Each character
+   * is uppercased as it is read, so the uppercased name is never held in
+   * memory either. Centering by display width needs the width of the widest
+   * row before the first row is written, so the name is read a third time.
+   * 
+   * @param name The name from which to generate the tower.
+   * @param out Where to write the tower.
+   * @throws IOException Thrown if the Appendable throws it.
+   */
+  public void generateTower(CharSequence name, Appendable out)
+      throws IOException {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(out, "Output must not be null!");
+
+    /* An empty name has an empty tower, so there is nothing to write. */
+    if(name.length() == 0) {
+      return;
+    }
+
+    int numRows = rowCount(UpperCase.codePointCount(name, locale));
+    int maxWidth = maxRowWidth(new UpperCase.Cursor(name, locale), numRows);
+    UpperCase.Cursor upper = new UpperCase.Cursor(name, locale);
+    StringBuilder row = new StringBuilder(2 * maxWidth);
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      row.setLength(0);
+
+      if(rowNum > 1) {
+        row.append('\n');
+      }
+
+      int rowStart = row.length();
+      int rowWidth = 2 * rowLength(rowNum) - 1;
+
+      for(int col = 0; col < rowLength(rowNum); col++) {
+        if(col > 0) {
+          row.append(' ');
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        int ch = upper.hasNext() ? upper.nextInt() : '*';
+        ch = ch == ' ' ? '*' : ch;
+        rowWidth += columns(ch) - 1;
+        row.appendCodePoint(ch);
+      }
+
+      row.insert(rowStart, " ".repeat((maxWidth - rowWidth) / 2));
+      out.append(row);
+    }
+  }
+
+  /**
+   * This method writes the name tower for a name read from a Reader, for a
+   * name too big to hold in memory. What is written is exactly what
+   * {@link #generateTower(CharSequence, Appendable)} writes for the same name,
+   * but only a block of the name (see {@link UpperCaseReader}) and the row
+   * being written are held in memory.
+   * 
+   * A Reader can only be read once, so the number of rows has to be known
+   * before the first character is read. That is what the declared length is
+   * for: the number of characters (code points) in the name once uppercased.
+   * For most names that is the number of characters in the name, but one that
+   * expands when uppercased (the German sharp s becomes "SS") counts as two.
+   * If the name turns out to be shorter or longer than declared, an
+   * IOException is thrown as soon as that is found, by which time some rows
+   * may already have been written.
+   * 
+   * Centering by display width needs the width of the widest row before the
+   * first row is written, which one pass over the name cannot give, so a
+   * NameTower that centers by display width can only stream a name from a
+   * {@link #generateTower(SeekableByteChannel, WritableByteChannel) seekable}
+   * channel.
+   * 
+   * @param name The name. It is read to the end but not closed.
+   * @param nameLength The number of characters in the uppercased name.
+   * @param out Where to write the tower.
+   * @throws IOException Thrown if the Reader or the Appendable throws it, or
+   *         if the name is not the declared length.
+   * @throws IllegalArgumentException Thrown if the length is negative or so
+   *         big that a row would not fit in a StringBuilder.
+   * @throws IllegalStateException Thrown if this NameTower centers by display
+   *         width.
+   */
+  public void generateTower(Reader name, long nameLength, Appendable out)
+      throws IOException {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(out, "Output must not be null!");
+
+    int numRows = streamedRowCount(nameLength);
+
+    if(centering != Centering.CHARACTERS) {
+      throw new IllegalStateException(
+          "Centering by display width needs a seekable name");
+    }
+
+    writeRows(new UpperCaseReader(name, locale), nameLength, numRows,
+        2 * rowLength(numRows) - 1, out);
+  }
+
+  /**
+   * This method writes the name tower for a name read in UTF-8 from a channel
+   * (a SocketChannel, the source of a Pipe, etc.) to another channel in UTF-8.
+   * The channels are wrapped in a decoder and an encoder and handed to
+   * {@link #generateTower(Reader, long, Appendable)}, so the length has to be
+   * declared in the same way and the same limits apply. Neither channel is
+   * closed.
+   * 
+   * @param name The name in UTF-8.
+   * @param nameLength The number of characters in the uppercased name.
+   * @param out Where to write the tower.
+   * @throws IOException Thrown if either channel throws it, or if the name is
+   *         not the declared length.
+   * @throws IllegalArgumentException Thrown if the length is negative or too
+   *         big.
+   * @throws IllegalStateException Thrown if this NameTower centers by display
+   *         width.
+   */
+  public void generateTower(ReadableByteChannel name, long nameLength,
+      WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(out, "Output must not be null!");
+
+    Writer writer = Channels.newWriter(out, StandardCharsets.UTF_8);
+    generateTower(Channels.newReader(name, StandardCharsets.UTF_8), nameLength,
+        writer);
+    writer.flush();
+  }
+
+  /**
+   * This method writes the name tower for a name held in UTF-8 in a seekable
+   * channel (usually a FileChannel), from its current position to its end, to
+   * another channel in UTF-8. Neither the name nor its length has to fit in
+   * memory. The channel is read once to count the characters in the
+   * uppercased name, once more to find the widest row if this NameTower
+   * centers by display width, and once to write the rows, just as
+   * {@link #generateTower(CharSequence, Appendable)} reads a name in memory.
+   * Neither channel is closed.
+   * 
+   * @param name The name in UTF-8.
+   * @param out Where to write the tower.
+   * @throws IOException Thrown if either channel throws it, or if the name
+   *         changes while it is being read.
+   * @throws IllegalArgumentException Thrown if the name is so long that a row
+   *         would not fit in a StringBuilder.
+   */
+  public void generateTower(SeekableByteChannel name, WritableByteChannel out)
+      throws IOException {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(out, "Output must not be null!");
+
+    long start = name.position();
+    long nameLength = 0;
+    UpperCaseReader counter = upperCaseReader(name, start);
+
+    while(counter.read() >= 0) {
+      nameLength++;
+    }
+
+    int numRows = streamedRowCount(nameLength);
+    Writer writer = Channels.newWriter(out, StandardCharsets.UTF_8);
+
+    int maxWidth = centering == Centering.CHARACTERS
+        ? 2 * rowLength(numRows) - 1
+        : maxRowWidth(upperCaseReader(name, start), numRows);
+
+    writeRows(upperCaseReader(name, start), nameLength, numRows, maxWidth,
+        writer);
+
+    writer.flush();
+  }
+
+  /**
+   * Returns a reader for the uppercase form of the name in the channel,
+   * starting at the given position. The decoder is not closed, since that
+   * would close the channel.
+   */
+  private UpperCaseReader upperCaseReader(SeekableByteChannel name, long start)
+      throws IOException {
+    name.position(start);
+    return new UpperCaseReader(Channels.newReader(name, StandardCharsets.UTF_8),
+        locale);
+  }
+
+  /**
+   * Returns the number of rows in the tower for a streamed name, whose length
+   * need not fit in an int. Every row is built in a StringBuilder, so the
+   * number of rows is limited to MAX_STREAMED_ROWS.
+   * 
+   * @param nameLength The number of characters in the uppercased name.
+   * @return The number of rows.
+   */
+  private static int streamedRowCount(long nameLength) {
+    long maxLength = (long)MAX_STREAMED_ROWS * MAX_STREAMED_ROWS;
+
+    if(nameLength < 0 || nameLength > maxLength) {
+      throw new IllegalArgumentException("Name length must be between 0 and "
+          + maxLength + " but was " + nameLength);
+    }
+
+    /* The square root of a long can be a little out either way. */
+    long root = (long)Math.sqrt(nameLength);
+
+    while(root * root > nameLength) {
+      root--;
+    }
+
+    while(root * root < nameLength) {
+      root++;
+    }
+
+    return (int)root;
+  }
+
+  /**
+   * Write the rows of a streamed name, checking as it goes that the name is
+   * exactly the declared length.
+   * 
+   * @param upper The uppercased name.
+   * @param nameLength The declared number of characters in the uppercased
+   *        name.
+   * @param numRows The number of rows in the tower.
+   * @param maxWidth The width of the widest row.
+   * @param out Where to write the tower.
+   * @throws IOException Thrown if the name is not the declared length, or if
+   *         the name or the Appendable throws it.
+   */
+  private void writeRows(UpperCaseReader upper, long nameLength, int numRows,
+      int maxWidth, Appendable out) throws IOException {
+    StringBuilder row = new StringBuilder();
+    long read = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      row.setLength(0);
+
+      if(rowNum > 1) {
+        row.append('\n');
+      }
+
+      int rowStart = row.length();
+      int rowWidth = 2 * rowLength(rowNum) - 1;
+
+      for(int col = 0; col < rowLength(rowNum); col++) {
+        if(col > 0) {
+          row.append(' ');
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        int ch = '*';
+
+        if(read < nameLength) {
+          ch = upper.read();
+
+          if(ch < 0) {
+            throw new IOException("The name ended after " + read
+                + " characters but was declared to have " + nameLength);
+          }
+
+          read++;
+        }
+
+        ch = ch == ' ' ? '*' : ch;
+        rowWidth += columns(ch) - 1;
+        row.appendCodePoint(ch);
+      }
+
+      row.insert(rowStart, " ".repeat((maxWidth - rowWidth) / 2));
+      out.append(row);
+    }
+
+    if(upper.read() >= 0) {
+      throw new IOException(
+          "The name is longer than the declared " + nameLength + " characters");
+    }
+  }
+
+  /**
+   * Returns the width of the widest row in the tower for a streamed name. This
+   * is {@link #maxRowWidth(PrimitiveIterator.OfInt, int)} for a name that is
+   * read from a Reader.
+   * 
+   * @param upper The uppercased name.
+   * @param numRows The number of rows in the tower.
+   * @return The width of the widest row.
+   */
+  private int maxRowWidth(UpperCaseReader upper, int numRows)
+      throws IOException {
+    int maxWidth = 0;
+    int ch = upper.read();
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      int rowWidth = 2 * rowLength(rowNum) - 1;
+
+      for(int col = 0; col < rowLength(rowNum) && ch >= 0; col++) {
+        rowWidth += DisplayWidth.of(ch) - 1;
+        ch = upper.read();
+      }
+
+      maxWidth = Math.max(maxWidth, rowWidth);
+    }
+
+    return maxWidth;
+  }
+
+  /**
+   * This method returns a single row of the name tower, exactly as it appears
+   * in the String returned by {@link #generateTower(String)} but without the
+   * linefeed. The row is centered for the whole tower, so the first row of a
+   * five row tower starts with eight spaces.
+   * 
+   * Since each row starts at a known offset in the name (see
+   * {@link #extractRawRows(String)}), only the characters of the requested row
+   * are rendered. The rows before it are never built. The name is uppercased
+   * and scanned once for surrogate pairs, since both can move the row offsets.
+   * 
+   * @param name The name from which to generate the tower.
+   * @param rowNum The 1-based row number.
+   * @return The row.
+   * @throws IndexOutOfBoundsException Thrown if the tower does not have the
+   *         requested row.
+   */
+  public String row(String name, int rowNum) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    String upper = toUpperCase(name);
+    RowBoundaries boundaries = RowBoundaries.of(upper);
+
+    return row(upper, boundaries, maxRowWidth(upper, boundaries), rowNum);
+  }
+
+  /**
+   * Return a single row of the tower using row boundaries that have already
+   * been found.
+   * 
+   * @param upper The uppercased name from which to generate the tower.
+   * @param boundaries The row boundaries for the uppercased name.
+   * @param maxWidth The width of the widest row.
+   * @param rowNum The 1-based row number.
+   * @return The row.
+   */
+  String row(String upper, RowBoundaries boundaries, int maxWidth,
+      int rowNum) {
+    Objects.checkIndex(rowNum - 1, boundaries.rowCount());
+
+    StringBuilder row = new StringBuilder(2 * maxWidth);
+    appendRow(row, upper, boundaries, maxWidth, rowNum);
+
+    return row.toString();
+  }
+
+  /**
+   * This method returns a range of rows from the name tower. Each row is the
+   * same as the one returned by {@link #row(String, int)}. Like the rest of the
+   * class, row numbers start at one. So, to get the first 20 rows call:
+   * 
+   * <pre>
+   * rows(name, 1, 21)
+   * </pre>
+   * 
+   * @param name The name from which to generate the tower.
+   * @param fromRow The 1-based number of the first row (inclusive).
+   * @param toRow The 1-based number of the last row (exclusive).
+   * @return A list of the rows.
+   * @throws IndexOutOfBoundsException Thrown if the tower does not have all of
+   *         the requested rows.
+   */
+  public List<String> rows(String name, int fromRow, int toRow) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    String upper = toUpperCase(name);
+    RowBoundaries boundaries = RowBoundaries.of(upper);
+    Objects.checkFromToIndex(fromRow - 1, toRow - 1, boundaries.rowCount());
+    int maxWidth = maxRowWidth(upper, boundaries);
+
+    // @formatter:off
+    return IntStream.range(fromRow, toRow)
+        .mapToObj(rowNum -> row(upper, boundaries, maxWidth, rowNum))
+        .toList();
+    // @formatter:on
+  }
+
+  /**
+   * This method returns the rows of the name tower as a Stream. Each row is the
+   * same as the one returned by {@link #row(String, int)} and is only built
+   * when the Stream gets to it. So this:
+   * 
+   * <pre>
+   * rowStream(name).limit(3).toList()
+   * </pre>
+   * 
+   * only builds the first three rows. The Stream knows its size up front and
+   * splits evenly, so calling parallel() on it shares the rows out across the
+   * threads of the common pool. An empty name gives an empty Stream.
+   * 
+   * @param name The name from which to generate the tower.
+   * @return A Stream of the tower rows.
+   */
+  public Stream<String> rowStream(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    String upper = toUpperCase(name);
+    RowBoundaries boundaries = RowBoundaries.of(upper);
+
+    return StreamSupport.stream(new TowerRowSpliterator(this, upper,
+        boundaries, maxRowWidth(upper, boundaries), 1,
+        boundaries.rowCount() + 1), false);
+  }
+
+  /**
+   * This method returns a Publisher of the rows of the name tower, for
+   * reactive code that sends rows over a link slower than they can be built.
+   * Each row is the same as the one returned by {@link #row(String, int)} and
+   * is only built once a subscriber has requested it, so a subscriber that
+   * asks for one row at a time holds one row at a time. Every subscriber gets
+   * all of the rows, and cancelling stops them. An empty name gives a
+   * Publisher that completes at once.
+   * 
+   * The rows are sent on the thread that requests them. See
+   * {@link #rowPublisher(String, Executor)} to send them from somewhere else.
+   * 
+   * @param name The name from which to generate the tower.
+   * @return A Publisher of the tower rows.
+   */
+  public Flow.Publisher<String> rowPublisher(String name) {
+    return rowPublisher(name, Runnable::run);
+  }
+
+  /**
+   * This method returns a Publisher of the rows of the name tower that sends
+   * the rows from the given executor, so a subscriber's request() returns
+   * without waiting for the rows. See {@link #rowPublisher(String)}.
+   * 
+   * @param name The name from which to generate the tower.
+   * @param executor Where the rows are sent from.
+   * @return A Publisher of the tower rows.
+   */
+  public Flow.Publisher<String> rowPublisher(String name, Executor executor) {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(executor, "Executor must not be null!");
+
+    String upper = toUpperCase(name);
+    RowBoundaries boundaries = RowBoundaries.of(upper);
+
+    return new TowerRowPublisher(this, upper, boundaries,
+        maxRowWidth(upper, boundaries), executor);
+  }
+
+  /**
+   * This method returns the name tower as a {@link Tower}, a CharSequence
+   * that holds the name rather than the tower and works out each character
+   * when it is asked for. Its characters are those of the String returned by
+   * {@link #generateTower(String)}, but nothing is built until toString() is
+   * called, so hashing, comparing or writing out a slice of a big tower costs
+   * only as much as the slice.
+   * 
+   * That needs each char of the name to uppercase to one char that takes one
+   * column. For any other name, and for the few locales with their own
+   * uppercasing rules, the tower is rendered here and the Tower reads from
+   * it.
+   * 
+   * @param name The name from which to generate the tower.
+   * @return The tower.
+   */
+  public Tower tower(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    if(isCharForChar(name)) {
+      return Tower.computed(name);
+    }
+
+    return Tower.rendered(generateTower(name));
+  }
+
+  /**
+   * Returns true if every char of the name uppercases to exactly one char
+   * that is not half of a surrogate pair and, when centering by display
+   * width, takes one column. The tower of such a name is the same as the
+   * tower of a name of one-column characters, so {@link Tower} can lay it out
+   * by arithmetic. The empty tower of an empty name is left to
+   * {@link #generateTower(String)}.
+   * 
+   * @param name The name.
+   * @return true if the tower can be laid out char for char.
+   */
+  private boolean isCharForChar(String name) {
+    if(name.isEmpty() || !UpperCase.isTableUsable(locale)) {
+      return false;
+    }
+
+    for(int index = 0; index < name.length(); index++) {
+      char ch = name.charAt(index);
+      int up = UpperCase.toUpperCase(ch);
+
+      // @formatter:off
+      if(Character.isSurrogate(ch)
+          || up == UpperCase.EXPANDS
+          || up > Character.MAX_VALUE
+          || Character.isSurrogate((char)up)
+          || columns(up) != 1) {
+        return false;
+      }
+      // @formatter:on
+    }
+
+    return true;
+  }
+
+  /**
+   * Append a single finished row to the StringBuilder. The row is built the
+   * same way the Stream pipeline builds it: the row is cut out of the
+   * uppercased name, the last row is lengthened with asterisks and then the
+   * characters are added with spaces between them. The centering spaces are
+   * put in front last, once the width of the row is known.
+   * 
+   * @param row The StringBuilder to which the row is added.
+   * @param upper The uppercased name.
+   * @param boundaries The row boundaries for the uppercased name.
+   * @param maxWidth The width of the widest row.
+   * @param rowNum The 1-based row number.
+   */
+  private void appendRow(StringBuilder row, String upper,
+      RowBoundaries boundaries, int maxWidth, int rowNum) {
+    int rowStart = row.length();
+    int rowWidth = 2 * rowLength(rowNum) - 1;
+    int index = boundaries.start(rowNum);
+
+    for(int col = 0; col < rowLength(rowNum); col++) {
+      if(col > 0) {
+        row.append(' ');
+      }
+
+      /* Past the end of the name the last row is filled with asterisks. */
+      int ch = '*';
+
+      if(index < boundaries.end(rowNum)) {
+        ch = upper.codePointAt(index);
+        index += Character.charCount(ch);
+      }
+
+      ch = ch == ' ' ? '*' : ch;
+      rowWidth += columns(ch) - 1;
+      row.appendCodePoint(ch);
+    }
+
+    row.insert(rowStart, " ".repeat((maxWidth - rowWidth) / 2));
+  }
+
+  /**
+   * Returns the number of columns a character takes up when centering rows.
+   * 
+   * @param codePoint The character.
+   * @return The number of columns.
+   */
+  private int columns(int codePoint) {
+    return centering == Centering.CHARACTERS ? 1 : DisplayWidth.of(codePoint);
+  }
+
+  /**
+   * Returns the width of the widest row in the tower, not counting the
+   * centering spaces. Each row is centered by putting half of the difference
+   * between this and its own width in front of it.
+   * 
+   * @param upper The uppercased name.
+   * @param boundaries The row boundaries for the uppercased name.
+   * @return The width of the widest row.
+   */
+  int maxRowWidth(String upper, RowBoundaries boundaries) {
+    return maxRowWidth(upper.codePoints().iterator(), boundaries.rowCount());
+  }
+
+  /**
+   * Returns the width of the widest row in the tower. When every character
+   * takes one column, row r is 2 * rowLength(r) - 1 columns wide (the
+   * characters and the spaces between them), so the last row is the widest
+   * and the characters do not need to be read at all.
+   * 
+   * @param upper The code points of the uppercased name, in order.
+   * @param numRows The number of rows in the tower.
+   * @return The width of the widest row.
+   */
+  private int maxRowWidth(PrimitiveIterator.OfInt upper, int numRows) {
+    if(centering == Centering.CHARACTERS) {
+      return 2 * rowLength(numRows) - 1;
+    }
+
+    int maxWidth = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      int rowWidth = 2 * rowLength(rowNum) - 1;
+
+      /* The asterisks that pad out the last row take one column each. */
+      for(int col = 0; col < rowLength(rowNum) && upper.hasNext(); col++) {
+        rowWidth += DisplayWidth.of(upper.nextInt()) - 1;
+      }
+
+      maxWidth = Math.max(maxWidth, rowWidth);
+    }
+
+    return maxWidth;
+  }
+
+  /**
+   * Returns true if the name can be rendered a byte per character through the
+   * {@link Latin1Case} table.
+   * 
+   * @param name The name.
+   * @return true if the Latin-1 path can be used.
+   */
+  private boolean isLatin1Renderable(String name) {
+    // @formatter:off
+    return !name.isEmpty()
+        && Latin1Case.isUsable(locale)
+        && Latin1Case.canRender(name);
+    // @formatter:on
+  }
+
+  /**
+   * Returns the locale used to convert names to uppercase.
+   * 
+   * @return The locale.
+   */
+  Locale locale() {
+    return locale;
+  }
+
+  /**
+   * Returns how the rows are centered.
+   * 
+   * @return The centering.
+   */
+  Centering centering() {
+    return centering;
+  }
+
+  /**
+   * Returns true if the name holds any surrogates. A name without them has one
+   * char per character, so it can be rendered a char at a time.
+   * 
+   * @param name The name.
+   * @return true if the single pass cannot be used for the name.
+   */
+  static boolean hasSurrogates(String name) {
+    for(int index = 0; index < name.length(); index++) {
+      if(Character.isSurrogate(name.charAt(index))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * This method converts the whole name to uppercase before the rows are cut
+   * out of it. Doing it up front means the rows are laid out with the
+   * characters that actually appear in the tower. A few characters become more
+   * than one character when uppercased (the German sharp s becomes "SS" and
+   * the "fi" ligature becomes "FI"), so uppercasing each row after it has been
+   * cut out would make that row too long. See {@link UpperCase}.
+   * 
+   * @param name The name.
+   * @return The name converted to uppercase with the locale of this NameTower.
+   */
+  String toUpperCase(String name) {
+    return UpperCase.toUpperCase(name, locale);
+  }
+
+  /**
+   * Returns the number of rows in the tower for a name of the given length.
+   * This is the same calculation that {@link #extractRawRows(String)} does:
+   * the rows hold 1, 3, 5, ... characters, so r rows hold r^2 characters and
+   * a name needs the square root of its length, rounded up.
+   * 
+   * @param nameLength The number of characters (code points) in the
+   *        uppercased name.
+   * @return The number of rows in the tower.
+   * @throws IllegalArgumentException Thrown if the length is negative.
+   */
+  public static int rowCount(int nameLength) {
+    if(nameLength < 0) {
+      throw new IllegalArgumentException(
+          "Name length must not be negative but was " + nameLength);
+    }
+
+    /* The square root of an int is never rounded past the next integer. */
+    int root = (int)Math.sqrt(nameLength);
+    return root * root < nameLength ? root + 1 : root;
+  }
+
+  /**
+   * Returns the number of characters in the tower for a name of the given
+   * length, without rendering it. This lets a caller size a buffer, or set a
+   * Content-Length, before the tower exists.
+   * 
+   * The length is exact for a NameTower that centers by character count when
+   * every character of the uppercased name is a single char (no surrogate
+   * pairs). For an ASCII name it is also the number of bytes in the tower,
+   * since every tower character is then ASCII too. In any other case, ask
+   * {@link TowerRenderer#towerLength(CharSequence)}, which looks at the name.
+   * 
+   * @param nameLength The number of characters in the uppercased name.
+   * @return The number of characters in the tower.
+   * @throws IllegalArgumentException Thrown if the length is negative or the
+   *         tower is too big to fit in a single String.
+   */
+  public static int outputLength(int nameLength) {
+    return outputLengthForRows(rowCount(nameLength));
+  }
+
+  /**
+   * Returns the number of characters in a finished tower with the given number
+   * of rows. Row r has 2 * (numRows - r) centering spaces followed by
+   * rowLength(r) characters with a space between each pair, which adds up to
+   * 2 * numRows + 2 * r - 3. Summing over all rows and adding a linefeed
+   * between each pair of rows gives 3 * numRows^2 - numRows - 1.
+   * 
+   * @param numRows The number of rows in the tower.
+   * @return The number of characters in the tower.
+   * @throws IllegalArgumentException Thrown if the tower is too big to fit in
+   *         a single String.
+   */
+  static int outputLengthForRows(int numRows) {
+    /* A tower with no rows has no linefeeds either. */
+    if(numRows == 0) {
+      return 0;
+    }
+
+    long length = 3L * numRows * numRows - numRows - 1;
+
+    if(length > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "A tower with " + numRows + " rows is too big to fit in a String!");
+    }
+
+    return (int)length;
+  }
+
+  /**
+   * Returns the offset in the finished tower of the first character of a row
+   * (the first centering space). Each row before row r takes
+   * 2 * numRows + 2 * i - 3 characters plus a linefeed, which adds up to
+   * (r - 1) * (2 * numRows + r - 2).
+   * 
+   * @param numRows The number of rows in the tower.
+   * @param rowNum The 1-based row number.
+   * @return The offset of the row in the tower.
+   */
+  static int rowOffset(int numRows, int rowNum) {
+    return (int)((rowNum - 1L) * (2L * numRows + rowNum - 2));
+  }
+
   /**
    * Convert the list to a single String with linefeed characters at the end of
    * each list element.
@@ -69,19 +1028,24 @@ public class NameTower {
    * @return The list elements concatenated together separated by linefeed
    *         characters.
    */
-  private String convertToStringWithLinefeeds(List<String> list) {
+  String convertToStringWithLinefeeds(List<String> list) {
     return list.stream().collect(Collectors.joining("\n"));
   }
 
   /**
    * If the last row in the list is not the correct length, lengthen it by
-   * adding asterisks.
+   * adding asterisks. The tower of an empty name has no rows to lengthen.
    * 
    * @param rows The list to manage.
    */
   private void padLastRow(List<String> rows) {
+    if(rows.isEmpty()) {
+      return;
+    }
+
     String lastRow = rows.get(rows.size() - 1);
-    int padLen = rowLength(rows.size()) - lastRow.length();
+    int padLen =
+        rowLength(rows.size()) - lastRow.codePointCount(0, lastRow.length());
     rows.set(rows.size() - 1, lastRow + "*".repeat(padLen));
   }
 
@@ -107,10 +1071,18 @@ public class NameTower {
    * T * * * * * * * *
    * </pre>
    * 
+   * When centering by display width, each row is measured in columns instead
+   * and is given half of the difference between the widest row and itself.
+   * When every character takes one column this is the same as the above.
+   * 
    * @param rows The list of rows.
    * @return The list with characters centered in each row.
    */
-  private List<String> centerCharactersInRows(List<String> rows) {
+  List<String> centerCharactersInRows(List<String> rows) {
+    if(centering == Centering.DISPLAY_WIDTH) {
+      return centerRowsByDisplayWidth(rows);
+    }
+
     int maxLength = rowLength(rows.size());
 
     /*
@@ -124,20 +1096,38 @@ public class NameTower {
         .toList();
     // @formatter:on
   }
+  /**
+   * Center the rows by the number of columns each one takes up.
+   * 
+   * @param rows The list of rows.
+   * @return The list with characters centered in each row.
+   */
+  private List<String> centerRowsByDisplayWidth(List<String> rows) {
+    int[] widths = rows.stream().mapToInt(DisplayWidth::of).toArray();
+    int maxWidth = Arrays.stream(widths).max().orElse(0);
+
+    // @formatter:off
+    return IntStream.range(0, rows.size())
+        .mapToObj(index -> " ".repeat((maxWidth - widths[index]) / 2)
+            + rows.get(index))
+        .toList();
+    // @formatter:on
+  }
+
 
   /**
    * This method uses a Stream to enhance the raw rows. This performs the
    * following on each row:
    * <ol>
-   * <li>The row text is converted to uppercase.</li>
    * <li>Any spaces are replaced with asterisks.</li>
    * <li>Spaces are added between the row characters.</li>
    * </ol>
    * Note the last map() method. This method call:
    * <ul>
    * <li>Converts the row String to a Stream of integers (IntStream). The
-   * integers represent the ordinal value of each character in the row. The
-   * integers can be cast to a char if necessary.</li>
+   * integers are the Unicode code points of the characters in the row. Using
+   * codePoints() rather than chars() keeps each surrogate pair (an emoji, for
+   * example) together as one character instead of splitting it in two.</li>
    * <li>Each character in the Stream is converted a a String. So ['F', 'I',
    * 'R'] becomes ["F", "I", "R"].</li>
    * <li>The Stream is reassembled as a String with spaces between each
@@ -147,12 +1137,11 @@ public class NameTower {
    * @param rows
    * @return
    */
-  private List<String> enhanceRawRows(List<String> rows) {
+  List<String> enhanceRawRows(List<String> rows) {
     // @formatter:off
     return rows.stream()                        // Stream of String
-        .map(String::toUpperCase)               // Convert to uppercase
         .map(row -> row.replace(' ', '*'))      // Replace spaces with *
-        .map(row -> row.chars()                 // Convert to IntStream (chars)
+        .map(row -> row.codePoints()            // IntStream of code points
             .mapToObj(Character::toString)      // Convert to Stream of String (chars)
             .collect(Collectors.joining(" ")))  // Add space between each char
         .toList();                              // Return List of String (rows)
@@ -166,108 +1155,94 @@ public class NameTower {
    * @param rowNum The row number.
    * @return The number of characters on each row. This is rowNum * 2 - 1.
    */
-  private int rowLength(int rowNum) {
+  static int rowLength(int rowNum) {
     return rowNum * 2 - 1;
   }
 
   /**
    * This method returns a raw name tower with the correct number of characters
    * on each row. Asterisks are added to the last row as needed to make the row
-   * the correct length. So, for the name "First Middle Last" this is returned:
+   * the correct length. The name has already been converted to uppercase by
+   * {@link #toUpperCase(String)}. So, for the name "First Middle Last" this is
+   * returned:
    * 
    * <pre>
    * F
-   * irs
-   * t mid
-   * dle las
-   * t********
+   * IRS
+   * T MID
+   * DLE LAS
+   * T********
    * </pre>
    * 
-   * This uses a trick to get the compiler to allow the operation. It would be
-   * more straightforward to remove characters from the start of the name as
-   * each row is built. So, given the name "First Middle Last" rows would be
-   * built as follows:
+   * Each row is cut out of the name by its position rather than by removing
+   * characters from the front of the name as rows are built. Row 1 holds 1
+   * character, row 2 holds 3, row 3 holds 5 and so on. The rows before row r
+   * therefore hold 1 + 3 + 5 + ... + (2r - 3) characters, which adds up to
+   * (r - 1) * (r - 1). So each row starts at a known offset in the name:
    * <table>
    * <tr>
    * <th>Row Num</th>
-   * <th>Starting name String</th>
+   * <th>Start Offset</th>
+   * <th>Row Length</th>
    * <th>Row</th>
-   * <th>Ending Name String</th>
    * </tr>
    * <tr>
    * <td>1</td>
-   * <td>First Middle Last</td>
+   * <td>0</td>
+   * <td>1</td>
    * <td>F</td>
-   * <td>irst Middle Last</td>
    * </tr>
    * <tr>
    * <td>2</td>
-   * <td>irst Middle Last</td>
-   * <td>irs</td>
-   * <td>t Middle Last</td>
+   * <td>1</td>
+   * <td>3</td>
+   * <td>IRS</td>
    * </tr>
    * <tr>
    * <td>3</td>
-   * <td>t Middle Last</td>
-   * <td>t Mid</td>
-   * <td>dle Last</td>
+   * <td>4</td>
+   * <td>5</td>
+   * <td>T MID</td>
    * </tr>
    * <tr>
    * <td>4</td>
-   * <td>dle Last</td>
-   * <td>dle Las</td>
-   * <td>t</td>
+   * <td>9</td>
+   * <td>7</td>
+   * <td>DLE LAS</td>
    * </tr>
    * <tr>
    * <td>5</td>
-   * <td>t</td>
-   * <td>t</td>
-   * <td></td>
+   * <td>16</td>
+   * <td>9</td>
+   * <td>T</td>
    * </tr>
    * </table>
    * 
-   * The problem for us is that the compiler requires that the variable that
-   * contains the name be final (or "effectively" final -- which means that the
-   * compiler makes it final whether you use the "final" keyword or not). This
-   * means that the variable reference cannot be reassigned. So, you can't do
-   * this:
-   * 
-   * <pre>
-   * name = name.substring(3);
-   * </pre>
-   * 
-   * The trick is to turn the name String into a StringBuilder. This will allow
-   * the content to change without changing the reference in the local variable.
-   * So, to remove the first 3 characters from the StringBuilder, call:
-   * 
-   * <pre>
-   * builder.delete(0, 3);
-   * </pre>
+   * Since every row only reads the name and never changes it, the rows can be
+   * built in any order and the name is only copied once. This keeps the work
+   * in proportion to the length of the name, which matters for very long
+   * names. The offsets are counted in code points, so if the name has any
+   * surrogate pairs the char offset of each row is found by
+   * {@link RowBoundaries}.
    * 
-   * What can I say? It's an ugly hack but it works. The reason it's a hack is
-   * that Java's implementation of functional programming with streams allows
-   * the stream to reference a variable outside the stream. This is not "pure"
-   * functional programming -- but it <em>is</em> Java.
+   * The termination method (collect()) is passed Collectors.toCollection().
+   * That method is passed a reference to the ArrayList constructor, thereby
+   * creating a new (modifiable) ArrayList. If toList() or
+   * collect(Collectors.toList()) is used for the termination method, an
+   * unmodifiable list is returned. If an unmodifiable list is created,
+   * padLastRow will throw an exception.
    * 
-   * @param name The name as a String.
+   * @param name The uppercased name as a String.
    * @return A list of raw rows as described above.
    */
-  private List<String> extractRawRows(String name) {
-    StringBuilder buffer = new StringBuilder(name);
-    int numRows = (int)Math.ceil(Math.sqrt(name.length()));
+  List<String> extractRawRows(String name) {
+    RowBoundaries boundaries = RowBoundaries.of(name);
+    int numRows = boundaries.rowCount();
 
-    /*
-     * The termination method (collect()) is passed Collectors.toCollection().
-     * That method is passed a reference to the LinkedList constructor, thereby
-     * creating a new (modifiable) LinkedList. If toList() or
-     * collect(Collectors.toList()) is used for the termination method, an
-     * unmodifiable list is returned. If an unmodifiable list is created,
-     * padLastRow will throw an exception.
-     */
     // @formatter:off
     List<String> rows = IntStream.range(1, numRows + 1)
-        .mapToObj(rowNum -> extractRowChars(buffer, rowNum))
-        .collect(Collectors.toCollection(LinkedList::new));
+        .mapToObj(rowNum -> extractRowChars(name, boundaries, rowNum))
+        .collect(Collectors.toCollection(ArrayList::new));
     // @formatter:on
 
     padLastRow(rows);
@@ -276,22 +1251,28 @@ public class NameTower {
   }
 
   /**
-   * Extract the characters from the StringBuilder and return them as a String.
+   * Extract the characters for a single row from the name.
    * 
-   * @param buffer The StringBuilder containing the remaining name characters.
-   * @param rowNum The 1-based row number. This is used to calculate the number
-   *        of characters to be extracted from the StringBuilder to form the
-   *        row.
+   * @param name The name.
+   * @param boundaries The row boundaries for the name. These never run past
+   *        the end of the name.
+   * @param rowNum The 1-based row number.
    * @return The row characters.
    */
-  private String extractRowChars(StringBuilder buffer, int rowNum) {
-    /* Don't copy past the end of the StringBuilder. */
-    int copyLen = Math.min(buffer.length(), rowLength(rowNum));
-    String row = buffer.substring(0, copyLen);
-
-    buffer.delete(0, copyLen);
+  private String extractRowChars(String name, RowBoundaries boundaries,
+      int rowNum) {
+    return name.substring(boundaries.start(rowNum), boundaries.end(rowNum));
+  }
 
-    return row;
+  /**
+   * This method calculates the offset in the name of the first character in a
+   * row. Note that the first row number is 1, not 0.
+   * 
+   * @param rowNum The row number.
+   * @return The offset of the row in the name. This is (rowNum - 1) squared.
+   */
+  static int rowStart(int rowNum) {
+    return (rowNum - 1) * (rowNum - 1);
   }
 
 }
@@ -0,0 +1,135 @@
+package name.tower;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class holds many strings packed end to end in a single buffer of UTF-8
+ * bytes, with an array of offsets that records where each one starts. String i
+ * runs from offsets[i] up to (but not including) offsets[i + 1], so there is
+ * one more offset than there are strings. This is the same layout Apache Arrow
+ * uses for variable-width strings.
+ *
+ * Holding a batch this way costs two objects no matter how many strings there
+ * are, instead of one or two objects per string. The buffer can be a heap
+ * buffer or a direct buffer. It is used both for batches of names and for the
+ * batches of towers that {@link PackedTowerRenderer} makes from them.
+ *
+ * @author Promineo
+ *
+ */
+public final class PackedStrings {
+  private final ByteBuffer data;
+  private final int[] offsets;
+
+  /**
+   * Wrap a buffer and offsets that are already in the packed layout. Neither
+   * is copied, so they must not be changed afterwards.
+   *
+   * @param data The UTF-8 bytes of every string, end to end. Offsets are
+   *        measured from the start of the buffer, not from its position.
+   * @param offsets The offset of each string, followed by the end of the last
+   *        string.
+   * @throws IllegalArgumentException Thrown if the offsets are empty, go
+   *         backwards or run past the end of the buffer.
+   */
+  public PackedStrings(ByteBuffer data, int[] offsets) {
+    this.data = Objects.requireNonNull(data, "Data must not be null!");
+    this.offsets = Objects.requireNonNull(offsets, "Offsets must not be null!");
+
+    if(offsets.length == 0 || offsets[0] < 0
+        || offsets[offsets.length - 1] > data.limit()) {
+      throw new IllegalArgumentException(
+          "Offsets must start at zero or more and end within the data!");
+    }
+
+    for(int index = 1; index < offsets.length; index++) {
+      if(offsets[index] < offsets[index - 1]) {
+        throw new IllegalArgumentException(
+            "Offsets must not go backwards but offset " + index + " does!");
+      }
+    }
+  }
+
+  /**
+   * Pack a list of strings.
+   *
+   * @param strings The strings to pack.
+   * @return The packed strings.
+   */
+  public static PackedStrings of(List<String> strings) {
+    Objects.requireNonNull(strings, "Strings must not be null!");
+
+    byte[][] encoded = new byte[strings.size()][];
+    int[] offsets = new int[strings.size() + 1];
+
+    for(int index = 0; index < encoded.length; index++) {
+      encoded[index] = Objects.requireNonNull(strings.get(index),
+          "Strings must not contain null!").getBytes(StandardCharsets.UTF_8);
+      offsets[index + 1] = Math.addExact(offsets[index], encoded[index].length);
+    }
+
+    byte[] data = new byte[offsets[encoded.length]];
+
+    for(int index = 0; index < encoded.length; index++) {
+      System.arraycopy(encoded[index], 0, data, offsets[index],
+          encoded[index].length);
+    }
+
+    return new PackedStrings(ByteBuffer.wrap(data), offsets);
+  }
+
+  /**
+   * @return The number of strings.
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the offset in the buffer of the first byte of a string. Passing
+   * {@link #size()} returns the end of the last string.
+   *
+   * @param index The index of the string.
+   * @return The offset of the string.
+   */
+  public int offset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Returns the number of bytes in a string.
+   *
+   * @param index The index of the string.
+   * @return The number of bytes.
+   */
+  public int byteLength(int index) {
+    return offsets[index + 1] - offsets[index];
+  }
+
+  /**
+   * Returns the buffer holding the bytes of every string. The buffer is not
+   * copied, so it must not be changed.
+   *
+   * @return The buffer.
+   */
+  public ByteBuffer data() {
+    return data;
+  }
+
+  /**
+   * Decode one of the strings. This creates a String, so it is meant for tests
+   * and for the occasional string, not for processing the whole batch.
+   *
+   * @param index The index of the string.
+   * @return The decoded string.
+   */
+  public String get(int index) {
+    byte[] bytes = new byte[byteLength(index)];
+    data.get(offsets[index], bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,165 @@
+package name.tower;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class renders a packed batch of names (see {@link PackedStrings}) into a
+ * packed batch of towers. Each tower is the UTF-8 encoding of the tower that
+ * {@link NameTower#generateTower(String)} returns for the name.
+ *
+ * Names that are plain ASCII and no longer than
+ * {@link TowerLayout#MAX_CACHED_LENGTH} are rendered straight from the name
+ * bytes into the tower bytes through the shared {@link TowerLayout} for their
+ * length. Longer ASCII names are read through an {@link AsciiName} view of
+ * the same bytes and rendered by a {@link TowerRenderer}, which reuses its
+ * scratch arrays from one name to the next instead of building a layout as big
+ * as each tower. No String is created for any ASCII name. Any other name is
+ * decoded, rendered by the Stream pipeline and encoded again.
+ *
+ * The ASCII shortcut uppercases with the {@link Latin1Case} table. That only
+ * matches String.toUpperCase() when the locale is not Turkish or Azerbaijani
+ * (where 'i' becomes a dotted capital I), so in those locales every name takes
+ * the slow path. ASCII characters are all one column wide, so the centering
+ * does not matter.
+ *
+ * @author Promineo
+ *
+ */
+public class PackedTowerRenderer {
+  private final NameTower nameTower;
+
+  /**
+   * Create a renderer that renders towers the way
+   * {@link NameTower#NameTower()} does.
+   */
+  public PackedTowerRenderer() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a renderer.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public PackedTowerRenderer(NameTower nameTower) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+  }
+
+  /**
+   * This method renders the tower for every name in the batch.
+   *
+   * @param names The packed names.
+   * @return The packed towers, in the same order as the names.
+   * @throws IllegalArgumentException Thrown if the towers do not fit in a
+   *         single array.
+   */
+  public PackedStrings render(PackedStrings names) {
+    Objects.requireNonNull(names, "Names must not be null!");
+
+    ByteBuffer data = names.data();
+    boolean asciiSafe = Latin1Case.isUsable(nameTower.locale());
+    int[] offsets = new int[names.size() + 1];
+    byte[] towers = new byte[estimateSize(names)];
+    int pos = 0;
+
+    /* Made for the first long ASCII name, since most batches have none. */
+    TowerRenderer renderer = null;
+    AsciiName ascii = new AsciiName();
+
+    for(int index = 0; index < names.size(); index++) {
+      int start = names.offset(index);
+      int length = names.byteLength(index);
+
+      boolean isAscii =
+          asciiSafe && length > 0 && isAscii(data, start, length);
+
+      if(isAscii && length > TowerLayout.MAX_CACHED_LENGTH) {
+        if(renderer == null) {
+          renderer = new TowerRenderer(nameTower);
+        }
+
+        /*
+         * An ASCII name uppercases char for char into a tower of one byte per
+         * char, so its size is known without measuring it.
+         */
+        towers = ensureCapacity(towers, pos, NameTower.outputLength(length));
+        ascii.wrap(data, start, length);
+        pos += renderer.render(ascii, towers, pos);
+      }
+      else if(isAscii) {
+        TowerLayout layout = TowerLayout.forLength(length);
+        towers = ensureCapacity(towers, pos, layout.outputLength());
+        layout.renderAscii(data, start, towers, pos);
+        pos += layout.outputLength();
+      }
+      else {
+        byte[] tower = nameTower.generateTower(names.get(index))
+            .getBytes(StandardCharsets.UTF_8);
+        towers = ensureCapacity(towers, pos, tower.length);
+        System.arraycopy(tower, 0, towers, pos, tower.length);
+        pos += tower.length;
+      }
+
+      offsets[index + 1] = pos;
+    }
+
+    return new PackedStrings(ByteBuffer.wrap(towers, 0, pos), offsets);
+  }
+
+  /**
+   * Returns true if every byte in the range is ASCII.
+   */
+  private static boolean isAscii(ByteBuffer data, int start, int length) {
+    for(int index = start; index < start + length; index++) {
+      if(data.get(index) < 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Estimate the size of the packed towers assuming every name is ASCII. This
+   * is exact unless some names take the slow path. The sum is kept in a long
+   * so that a batch that is too big is refused before anything is rendered.
+   */
+  private static int estimateSize(PackedStrings names) {
+    long size = 0;
+
+    for(int index = 0; index < names.size(); index++) {
+      size += NameTower.outputLength(names.byteLength(index));
+
+      if(size > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("The towers in the batch need at "
+            + "least " + size + " bytes, too many to fit in a single array!");
+      }
+    }
+
+    return (int)size;
+  }
+
+  /**
+   * Grow the array if it cannot hold the given number of bytes at the given
+   * position.
+   */
+  private static byte[] ensureCapacity(byte[] towers, int pos, int needed) {
+    long required = (long)pos + needed;
+
+    if(required <= towers.length) {
+      return towers;
+    }
+
+    if(required > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "The towers in the batch are too big to fit in a single array!");
+    }
+
+    return Arrays.copyOf(towers,
+        (int)Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * pos)));
+  }
+}
@@ -0,0 +1,209 @@
+package name.tower;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class generates the same name tower as
+ * {@link NameTower#generateTower(String)} but shares the work out across the
+ * threads of a ForkJoinPool. It is meant for very long names (millions of
+ * characters).
+ *
+ * The position of every row is known up front, both in the name (see
+ * {@link NameTower#rowStart(int)}) and in the finished tower (see
+ * {@link NameTower#rowOffset(int, int)}). So a char array of exactly the right
+ * size is allocated, the range of rows is split into tasks and each task writes
+ * its rows straight into its own part of the array. No task has to wait for
+ * another.
+ *
+ * Splitting stops when a task has fewer characters to write than the
+ * threshold. A tower that is smaller than the threshold is rendered on the
+ * calling thread without using the pool at all.
+ *
+ * @author Promineo
+ *
+ */
+public class ParallelTowerRenderer {
+  /** The default number of tower characters below which a task is not split. */
+  public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+  private final NameTower nameTower;
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  /**
+   * Create a renderer that uses the common pool and the default threshold and
+   * renders towers the way {@link NameTower#NameTower()} does.
+   */
+  public ParallelTowerRenderer() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a renderer that uses the common pool and the default threshold.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public ParallelTowerRenderer(NameTower nameTower) {
+    this(nameTower, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Create a renderer that renders towers the way {@link NameTower#NameTower()}
+   * does.
+   *
+   * @param pool The pool that runs the tasks.
+   * @param threshold The number of tower characters below which the rows are
+   *        rendered sequentially.
+   * @throws IllegalArgumentException Thrown if the threshold is less than one.
+   */
+  public ParallelTowerRenderer(ForkJoinPool pool, int threshold) {
+    this(new NameTower(), pool, threshold);
+  }
+
+  /**
+   * Create a renderer.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   * @param pool The pool that runs the tasks.
+   * @param threshold The number of tower characters below which the rows are
+   *        rendered sequentially.
+   * @throws IllegalArgumentException Thrown if the threshold is less than one.
+   */
+  public ParallelTowerRenderer(NameTower nameTower, ForkJoinPool pool,
+      int threshold) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+    this.pool = Objects.requireNonNull(pool, "Pool must not be null!");
+
+    if(threshold < 1) {
+      throw new IllegalArgumentException(
+          "Threshold must be at least one but was " + threshold);
+    }
+
+    this.threshold = threshold;
+  }
+
+  /**
+   * This method generates the name tower from the given name.
+   *
+   * Like the Stream pipeline, the whole name is uppercased before any rows are
+   * rendered, so every task works on the final characters. An empty name, a
+   * name with surrogate pairs (which take two chars for one character) and,
+   * when centering by display width, a name with characters that do not take
+   * one column are handed to {@link NameTower#generateTower(String)} instead.
+   * The tasks center every row by character count.
+   *
+   * @param name The name from which to generate the tower.
+   * @return The name tower as a String.
+   */
+  public String generateTower(String name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    String upper = nameTower.toUpperCase(name);
+
+    // @formatter:off
+    if(upper.isEmpty()
+        || NameTower.hasSurrogates(upper)
+        || (nameTower.centering() == NameTower.Centering.DISPLAY_WIDTH
+            && !DisplayWidth.isSingleWidth(upper))) {
+      return nameTower.generateTower(name);
+    }
+    // @formatter:on
+
+    int numRows = NameTower.rowCount(upper.length());
+    char[] tower = new char[NameTower.outputLengthForRows(numRows)];
+    RenderRows task = new RenderRows(upper, tower, numRows, 1, numRows + 1);
+
+    if(tower.length < threshold) {
+      task.renderSequentially();
+    }
+    else {
+      pool.invoke(task);
+    }
+
+    return new String(tower);
+  }
+
+  /**
+   * This task renders a range of rows into the shared tower array.
+   */
+  private class RenderRows extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final String upper;
+    private final char[] tower;
+    private final int numRows;
+    private final int fromRow;
+    private final int toRow;
+
+    RenderRows(String upper, char[] tower, int numRows, int fromRow,
+        int toRow) {
+      this.upper = upper;
+      this.tower = tower;
+      this.numRows = numRows;
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+    }
+
+    @Override
+    protected void compute() {
+      int size = NameTower.rowOffset(numRows, toRow)
+          - NameTower.rowOffset(numRows, fromRow);
+
+      if(size < threshold || toRow - fromRow < 2) {
+        renderSequentially();
+        return;
+      }
+
+      int midRow = (fromRow + toRow) >>> 1;
+
+      // @formatter:off
+      invokeAll(
+          new RenderRows(upper, tower, numRows, fromRow, midRow),
+          new RenderRows(upper, tower, numRows, midRow, toRow));
+      // @formatter:on
+    }
+
+    /**
+     * Render each row in the range on the current thread.
+     */
+    void renderSequentially() {
+      for(int rowNum = fromRow; rowNum < toRow; rowNum++) {
+        renderRow(rowNum);
+      }
+    }
+
+    /**
+     * Render one row into its slot in the tower array: the centering spaces,
+     * then the row characters separated by spaces, then a linefeed if another
+     * row follows.
+     *
+     * @param rowNum The 1-based row number.
+     */
+    private void renderRow(int rowNum) {
+      int rowLength = NameTower.rowLength(rowNum);
+      int src = NameTower.rowStart(rowNum);
+      int pos = NameTower.rowOffset(numRows, rowNum);
+      int padLen = NameTower.rowLength(numRows) - rowLength;
+      Arrays.fill(tower, pos, pos + padLen, ' ');
+      pos += padLen;
+
+      for(int col = 0; col < rowLength; col++) {
+        if(col > 0) {
+          tower[pos++] = ' ';
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        char ch = src < upper.length() ? upper.charAt(src++) : '*';
+        tower[pos++] = ch == ' ' ? '*' : ch;
+      }
+
+      if(rowNum < numRows) {
+        tower[pos] = '\n';
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package name.tower;
+
+/**
+ * This class records where each row of a tower starts in the name. Rows are
+ * counted in Unicode code points, not chars, so that a surrogate pair (an
+ * emoji, for example) is never split between two rows or between two columns.
+ *
+ * For the vast majority of names, which have no surrogate pairs, every code
+ * point is one char and row r simply starts at char (r - 1) * (r - 1). Nothing
+ * is stored for those names. Otherwise the name is walked once and the char
+ * offset of each row start is stored, which takes one int per row.
+ *
+ * @author Promineo
+ *
+ */
+final class RowBoundaries {
+  private final int charLength;
+  private final int length;
+  private final int rowCount;
+  private final int[] starts;
+
+  private RowBoundaries(int charLength, int length, int[] starts) {
+    this.charLength = charLength;
+    this.length = length;
+    this.rowCount = NameTower.rowCount(length);
+    this.starts = starts;
+  }
+
+  /**
+   * Find the row boundaries for a name.
+   *
+   * @param name The name.
+   * @return The row boundaries.
+   */
+  static RowBoundaries of(CharSequence name) {
+    int charLength = name.length();
+    int length = Character.codePointCount(name, 0, charLength);
+
+    if(length == charLength) {
+      return new RowBoundaries(charLength, length, null);
+    }
+
+    int rowCount = NameTower.rowCount(length);
+    int[] starts = new int[rowCount + 1];
+    int index = 0;
+
+    for(int rowNum = 1; rowNum <= rowCount; rowNum++) {
+      starts[rowNum - 1] = index;
+
+      for(int col = 0; col < NameTower.rowLength(rowNum) && index < charLength;
+          col++) {
+        index += Character.charCount(Character.codePointAt(name, index));
+      }
+    }
+
+    starts[rowCount] = charLength;
+
+    return new RowBoundaries(charLength, length, starts);
+  }
+
+  /**
+   * @return The number of code points in the name.
+   */
+  int length() {
+    return length;
+  }
+
+  /**
+   * @return The number of rows in the tower.
+   */
+  int rowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the char offset in the name of the first character of a row.
+   *
+   * @param rowNum The 1-based row number.
+   * @return The char offset of the row.
+   */
+  int start(int rowNum) {
+    if(starts == null) {
+      return (int)Math.min(charLength, (rowNum - 1L) * (rowNum - 1L));
+    }
+
+    return starts[rowNum - 1];
+  }
+
+  /**
+   * Returns the char offset in the name just past the last character of a row.
+   *
+   * @param rowNum The 1-based row number.
+   * @return The char offset of the end of the row.
+   */
+  int end(int rowNum) {
+    return start(rowNum + 1);
+  }
+}
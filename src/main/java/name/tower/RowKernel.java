@@ -0,0 +1,148 @@
+package name.tower;
+
+import java.util.Arrays;
+
+/**
+ * This class renders the rows of a tower for a name made only of Latin-1
+ * characters, one byte per character. Almost all of the work in a long tower
+ * is the same small step repeated: look up the tower character for a name
+ * character and write it followed by a space. A kernel does that step for a
+ * whole run of characters at once, and this class does the rest (the
+ * centering spaces, the linefeeds and the asterisks that fill the last row).
+ *
+ * There are two kernels. {@link ScalarRowKernel} takes one character at a time
+ * through the {@link Latin1Case} table. {@link VectorRowKernel} uses the Vector
+ * API to uppercase and interleave a whole SIMD register of characters at once.
+ * On Java 17 the Vector API is an incubator module, so it is only there if the
+ * JVM was started with --add-modules jdk.incubator.vector. {@link #best()}
+ * checks for the module and quietly falls back to the scalar kernel when it is
+ * missing, so nothing else has to know which kernel it got.
+ *
+ * Every byte passed to a kernel must be a character for which
+ * {@link Latin1Case#canRender(CharSequence)} is true.
+ *
+ * @author Promineo
+ *
+ */
+abstract class RowKernel {
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final String VECTOR_KERNEL = "name.tower.VectorRowKernel";
+
+  /**
+   * The kernel chosen on first use. It is held in its own class so the check
+   * for the Vector API only runs if a kernel is needed.
+   */
+  private static final class Best {
+    private static final RowKernel KERNEL = choose();
+  }
+
+  /**
+   * Returns the fastest kernel this JVM can run.
+   *
+   * @return The vector kernel if the Vector API is present and the CPU has
+   *         SIMD registers of at least 128 bits, otherwise the scalar kernel.
+   */
+  static RowKernel best() {
+    return Best.KERNEL;
+  }
+
+  /**
+   * @return The kernel that handles one character at a time.
+   */
+  static RowKernel scalar() {
+    return new ScalarRowKernel();
+  }
+
+  /**
+   * Load the vector kernel if it can run here. It is loaded by name, since
+   * naming the class in code would fail to link when the module is missing.
+   */
+  private static RowKernel choose() {
+    if(ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      return scalar();
+    }
+
+    try {
+      // @formatter:off
+      RowKernel kernel = (RowKernel)Class.forName(VECTOR_KERNEL)
+          .getDeclaredConstructor()
+          .newInstance();
+      // @formatter:on
+
+      return kernel.isAccelerated() ? kernel : scalar();
+    }
+    catch(ReflectiveOperationException | LinkageError e) {
+      return scalar();
+    }
+  }
+
+  /**
+   * @return true if this kernel does more than one character at a time.
+   */
+  abstract boolean isAccelerated();
+
+  /**
+   * Write the tower character of each of count name characters, each one
+   * followed by a space. Exactly 2 * count bytes are written.
+   *
+   * @param name The name, one byte per character.
+   * @param from The index of the first name character.
+   * @param count The number of name characters.
+   * @param dest The array to write to.
+   * @param pos The index in dest of the first byte written.
+   */
+  abstract void interleave(byte[] name, int from, int count, byte[] dest,
+      int pos);
+
+  /**
+   * Returns the size of the array that {@link #render(byte[], byte[])} needs
+   * for a name. This is one more than the length of the tower, since every row
+   * is written with a trailing separator and the last row's has nowhere else
+   * to go.
+   *
+   * @param nameLength The number of characters in the name.
+   * @return The size of the array.
+   */
+  static int bufferLength(int nameLength) {
+    return NameTower.outputLength(nameLength) + 1;
+  }
+
+  /**
+   * Render the tower of a name into the start of the given array. Each row is
+   * written as its centering spaces followed by the interleaved characters.
+   * The space after the last character of a row is then overwritten with the
+   * linefeed, so the kernel never has to stop short of the row end.
+   *
+   * @param name The name, one byte per character. It must not be empty.
+   * @param tower The array to write to, at least
+   *        {@link #bufferLength(int)} bytes long.
+   * @return The length of the tower (without the spare byte).
+   */
+  final int render(byte[] name, byte[] tower) {
+    int numRows = NameTower.rowCount(name.length);
+    int maxLength = NameTower.rowLength(numRows);
+    int pos = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      int rowLength = NameTower.rowLength(rowNum);
+      int padLen = maxLength - rowLength;
+      Arrays.fill(tower, pos, pos + padLen, (byte)' ');
+      pos += padLen;
+
+      int start = NameTower.rowStart(rowNum);
+      int count = Math.min(rowLength, name.length - start);
+      interleave(name, start, count, tower, pos);
+      pos += 2 * count;
+
+      /* Past the end of the name the last row is filled with asterisks. */
+      for(int col = count; col < rowLength; col++) {
+        tower[pos++] = '*';
+        tower[pos++] = ' ';
+      }
+
+      tower[pos - 1] = '\n';
+    }
+
+    return pos - 1;
+  }
+}
@@ -0,0 +1,23 @@
+package name.tower;
+
+/**
+ * This kernel writes one character at a time, looking each one up in the
+ * {@link Latin1Case} table. It runs on any JVM.
+ *
+ * @author Promineo
+ *
+ */
+final class ScalarRowKernel extends RowKernel {
+  @Override
+  boolean isAccelerated() {
+    return false;
+  }
+
+  @Override
+  void interleave(byte[] name, int from, int count, byte[] dest, int pos) {
+    for(int index = from; index < from + count; index++) {
+      dest[pos++] = (byte)Latin1Case.towerChar(name[index] & 0xFF);
+      dest[pos++] = ' ';
+    }
+  }
+}
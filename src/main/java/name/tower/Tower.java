@@ -0,0 +1,318 @@
+package name.tower;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a name tower that is never built. It holds the name and the
+ * number of rows, and works out any character of the tower from them when it
+ * is asked for, so a caller that hashes, compares or writes out part of a
+ * tower does not pay for the whole String. Its characters are exactly those
+ * of the String returned by {@link NameTower#generateTower(String)}.
+ *
+ * The tower is laid out by arithmetic. Row r starts at
+ * {@link NameTower#rowOffset(int, int)}, which is quadratic in r, so the row
+ * of any index is found with a square root. Within the row come 2 * (numRows
+ * - r) centering spaces, then the characters of the row at every other place
+ * with spaces between them, then a linefeed unless it is the last row. The
+ * character at a place is the uppercased char of the name at
+ * {@link NameTower#rowStart(int)} plus the column, or an asterisk past the
+ * end of the name.
+ *
+ * That only works when each char of the name uppercases to one char, so
+ * {@link NameTower#tower(String)} only builds a Tower this way for such
+ * names. Any other name (one with surrogate pairs or a sharp s, for example)
+ * is rendered once and the Tower reads from the result.
+ *
+ * toString() builds the String the first time it is called and keeps it.
+ * Like String.hashCode(), it does this without locking, since two threads
+ * that race can only build the same String. hashCode() works the same way: it
+ * is the hash code of the String form, worked out from the chars the first
+ * time it is asked for, without building the String. Two Towers are equal if
+ * they hold the same chars. A Tower is never equal to a String, the same as a
+ * StringBuilder is not, so compare it to one with
+ * CharSequence.compare(CharSequence, CharSequence) or through toString().
+ *
+ * A subSequence() is a Tower over the same name, so it costs no more than the
+ * Tower it came from.
+ *
+ * @author Promineo
+ *
+ */
+public final class Tower implements CharSequence {
+  private final String name;
+  private final String rendered;
+  private final int numRows;
+  private final int start;
+  private final int length;
+  private String string;
+  private int hash;
+  private boolean hashIsZero;
+
+  private Tower(String name, String rendered, int numRows, int start,
+      int length) {
+    this.name = name;
+    this.rendered = rendered;
+    this.numRows = numRows;
+    this.start = start;
+    this.length = length;
+  }
+
+  /**
+   * Returns a Tower that works out its characters from the name. Each char of
+   * the name must uppercase to exactly one char.
+   *
+   * @param name The name.
+   * @return The Tower.
+   * @throws IllegalArgumentException Thrown if the tower is too big to fit in
+   *         a String.
+   */
+  static Tower computed(String name) {
+    int numRows = NameTower.rowCount(name.length());
+    return new Tower(name, null, numRows, 0,
+        NameTower.outputLengthForRows(numRows));
+  }
+
+  /**
+   * Returns a Tower that reads its characters from a tower that has already
+   * been rendered.
+   *
+   * @param tower The tower.
+   * @return The Tower.
+   */
+  static Tower rendered(String tower) {
+    return new Tower(null, tower, 0, 0, tower.length());
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    Objects.checkIndex(index, length);
+
+    if(rendered != null) {
+      return rendered.charAt(start + index);
+    }
+
+    int position = start + index;
+    int rowNum = rowOf(position);
+
+    return charAt(rowNum, position - NameTower.rowOffset(numRows, rowNum));
+  }
+
+  /**
+   * Returns the number of the row that holds the given index of the whole
+   * tower. Row r starts at (r - 1) * (2 * numRows + r - 2), so r - 1 is the
+   * largest k for which k^2 + (2 * numRows - 1) * k is no more than the index.
+   */
+  private int rowOf(int position) {
+    long b = 2L * numRows - 1;
+    int k = (int)((Math.sqrt((double)b * b + 4.0 * position) - b) / 2);
+
+    /* The square root can be a little out either way. */
+    while(k > 0 && (long)k * k + b * k > position) {
+      k--;
+    }
+
+    while((k + 1L) * (k + 1) + b * (k + 1) <= position) {
+      k++;
+    }
+
+    return k + 1;
+  }
+
+  /**
+   * Returns the character at the given place in a row, where the place after
+   * the last character of the row is its linefeed.
+   */
+  private char charAt(int rowNum, int place) {
+    int pad = 2 * (numRows - rowNum);
+
+    if(place < pad) {
+      return ' ';
+    }
+
+    int column = place - pad;
+
+    if(column == 2 * NameTower.rowLength(rowNum) - 1) {
+      return '\n';
+    }
+
+    if((column & 1) == 1) {
+      return ' ';
+    }
+
+    /* Past the end of the name the last row is filled with asterisks. */
+    int src = NameTower.rowStart(rowNum) + column / 2;
+
+    if(src >= name.length()) {
+      return '*';
+    }
+
+    char ch = (char)UpperCase.toUpperCase(name.charAt(src));
+    return ch == ' ' ? '*' : ch;
+  }
+
+  @Override
+  public Tower subSequence(int start, int end) {
+    Objects.checkFromToIndex(start, end, length);
+    return new Tower(name, rendered, numRows, this.start + start, end - start);
+  }
+
+  /**
+   * Returns the chars of the tower. They are worked out a row at a time, so
+   * the row of each char does not have to be found with a square root.
+   */
+  @Override
+  public IntStream chars() {
+    if(rendered != null) {
+      return rendered.chars().skip(start).limit(length);
+    }
+
+    int characteristics = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+
+    return StreamSupport.intStream(() -> Spliterators
+        .spliterator(new CharIterator(), length, characteristics),
+        characteristics | Spliterator.SIZED | Spliterator.SUBSIZED, false);
+  }
+
+  /**
+   * Returns the tower as a String. It is built the first time and kept.
+   */
+  @Override
+  public String toString() {
+    String result = string;
+
+    if(result == null) {
+      if(rendered != null) {
+        result = rendered.substring(start, start + length);
+      }
+      else {
+        char[] chars = new char[length];
+        CharIterator iterator = new CharIterator();
+
+        for(int index = 0; index < length; index++) {
+          chars[index] = (char)iterator.nextInt();
+        }
+
+        result = new String(chars);
+      }
+
+      string = result;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the same hash code as the String form. It is worked out the first
+   * time and kept.
+   */
+  @Override
+  public int hashCode() {
+    int result = hash;
+
+    if(result == 0 && !hashIsZero) {
+      if(string != null) {
+        result = string.hashCode();
+      }
+      else {
+        PrimitiveIterator.OfInt chars = chars().iterator();
+
+        while(chars.hasNext()) {
+          result = 31 * result + chars.nextInt();
+        }
+      }
+
+      if(result == 0) {
+        hashIsZero = true;
+      }
+      else {
+        hash = result;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns true if the object is a Tower with the same chars.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if(this == obj) {
+      return true;
+    }
+
+    if(!(obj instanceof Tower other) || length != other.length) {
+      return false;
+    }
+
+    /* Hash codes that are already known can tell towers apart for free. */
+    if(hash != 0 && other.hash != 0 && hash != other.hash) {
+      return false;
+    }
+
+    PrimitiveIterator.OfInt chars = chars().iterator();
+    PrimitiveIterator.OfInt otherChars = other.chars().iterator();
+
+    while(chars.hasNext()) {
+      if(chars.nextInt() != otherChars.nextInt()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This class walks through the chars of the tower in order, starting at the
+   * start of the Tower. Only the first row is found with a square root.
+   */
+  private final class CharIterator implements PrimitiveIterator.OfInt {
+    private int remaining = length;
+    private int rowNum;
+    private int place;
+
+    /**
+     * Create an iterator at the start of the Tower.
+     */
+    CharIterator() {
+      if(length > 0) {
+        rowNum = rowOf(start);
+        place = start - NameTower.rowOffset(numRows, rowNum);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if(remaining == 0) {
+        throw new NoSuchElementException();
+      }
+
+      char ch = charAt(rowNum, place++);
+      remaining--;
+
+      /* The linefeed is the last place in the row. */
+      if(place > 2 * (numRows - rowNum) + 2 * NameTower.rowLength(rowNum) - 1) {
+        rowNum++;
+        place = 0;
+      }
+
+      return ch;
+    }
+  }
+}
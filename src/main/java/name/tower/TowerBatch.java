@@ -0,0 +1,91 @@
+package name.tower;
+
+import java.util.List;
+
+/**
+ * This class holds the towers for a batch of names in one contiguous char
+ * array. Tower i runs from offset(i) up to (but not including) offset(i + 1).
+ * Nothing between the towers separates them; the offsets are the only way to
+ * tell where one ends and the next begins.
+ *
+ * It also holds the timing for each group of same-length names that was
+ * rendered, so the throughput for each name length can be reported.
+ *
+ * @author Promineo
+ *
+ */
+public final class TowerBatch {
+  private final char[] chars;
+  private final int[] offsets;
+  private final List<BucketStats> bucketStats;
+
+  /**
+   * The timing for one group of names that all have the same length.
+   *
+   * @param nameLength The length of every name in the group.
+   * @param nameCount The number of names in the group.
+   * @param nanos The time taken to render the group, in nanoseconds.
+   */
+  public record BucketStats(int nameLength, int nameCount, long nanos) {
+
+    /**
+     * @return The number of names rendered per second.
+     */
+    public double namesPerSecond() {
+      return nanos == 0 ? Double.POSITIVE_INFINITY : nameCount * 1e9 / nanos;
+    }
+  }
+
+  TowerBatch(char[] chars, int[] offsets, List<BucketStats> bucketStats) {
+    this.chars = chars;
+    this.offsets = offsets;
+    this.bucketStats = List.copyOf(bucketStats);
+  }
+
+  /**
+   * @return The number of towers in the batch.
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the tower at the given index as a String.
+   *
+   * @param index The index of the tower, which is the index of its name.
+   * @return The tower.
+   */
+  public String tower(int index) {
+    return new String(chars, offsets[index],
+        offsets[index + 1] - offsets[index]);
+  }
+
+  /**
+   * Returns the offset of the first character of a tower in
+   * {@link #chars()}. Passing {@link #size()} returns the total length.
+   *
+   * @param index The index of the tower.
+   * @return The offset of the tower.
+   */
+  public int offset(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Returns the array holding every tower. The array is not copied, so it
+   * must not be changed.
+   *
+   * @return The array of tower characters.
+   */
+  public char[] chars() {
+    return chars;
+  }
+
+  /**
+   * @return The timing for each group of same-length names, shortest names
+   *         first.
+   */
+  public List<BucketStats> bucketStats() {
+    return bucketStats;
+  }
+}
@@ -0,0 +1,324 @@
+package name.tower;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class keeps the tower of a name that is being typed up to date as
+ * characters are added to and taken off the end of the name. Each edit
+ * returns a {@link Diff}: the rows that changed, with their new text, and the
+ * new number of rows. A user interface can apply the diff to what it shows
+ * instead of redrawing the whole tower on every keystroke.
+ *
+ * Typing at the end of a name only changes the end of the uppercased name, so
+ * only the rows from the first changed character down need to be rebuilt,
+ * which is usually just the last row. Every row is rebuilt when the number of
+ * rows changes, or the widest row does when centering by display width, since
+ * then the centering of every row changes. That happens once every 2 * rows
+ * keystrokes or so, so the work per keystroke is about one row on average.
+ *
+ * Uppercasing can look back past the end of a name (in Lithuanian, a combining
+ * dot above is dropped after an i), so an edit uppercases the name again from
+ * the last place where it can be cut, as {@link UpperCaseReader} does. The
+ * builder remembers how many uppercase characters came before each such
+ * place.
+ *
+ * {@link #tower()} is always the String returned by
+ * {@link NameTower#generateTower(String)} for {@link #name()}, which is
+ * empty for an empty name. A builder is not thread safe.
+ *
+ * @author Promineo
+ *
+ */
+public class TowerBuilder {
+  private final NameTower nameTower;
+  private final StringBuilder name = new StringBuilder();
+  private int[] upper = new int[16];
+  private int upperLength;
+  private int[] upperBefore = new int[17];
+  private String[] rows = new String[1];
+  private int[] rowWidths = new int[1];
+  private int numRows;
+  private int maxWidth;
+
+  /**
+   * The rows that changed in an edit.
+   *
+   * @param rowCount The number of rows in the tower after the edit. Rows past
+   *        this number have gone.
+   * @param changes The rows that were added or whose text changed, in order.
+   */
+  public record Diff(int rowCount, List<Row> changes) {}
+
+  /**
+   * A row of the tower, exactly as it appears in the tower but without its
+   * linefeed.
+   *
+   * @param rowNum The 1-based row number.
+   * @param text The text of the row.
+   */
+  public record Row(int rowNum, String text) {}
+
+  /**
+   * Create a builder for an empty name that builds towers the way
+   * {@link NameTower#NameTower()} does.
+   */
+  public TowerBuilder() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a builder for an empty name.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public TowerBuilder(NameTower nameTower) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "NameTower must not be null!");
+  }
+
+  /**
+   * This method adds text to the end of the name.
+   *
+   * @param text The text to add.
+   * @return The rows that changed.
+   */
+  public Diff append(CharSequence text) {
+    Objects.requireNonNull(text, "Text must not be null!");
+
+    int oldLength = name.length();
+    name.append(text);
+
+    return update(cutAtOrBefore(oldLength));
+  }
+
+  /**
+   * This method takes chars off the end of the name, as backspace does.
+   *
+   * @param count The number of chars to take off.
+   * @return The rows that changed.
+   * @throws IllegalArgumentException Thrown if the count is negative or more
+   *         than the length of the name.
+   */
+  public Diff deleteLast(int count) {
+    if(count < 0 || count > name.length()) {
+      throw new IllegalArgumentException("Count must be between 0 and "
+          + name.length() + " but was " + count);
+    }
+
+    int newLength = name.length() - count;
+
+    /* Where to cut depends on the char after the cut, so find it first. */
+    int cut = cutAtOrBefore(newLength);
+    name.setLength(newLength);
+
+    return update(cut);
+  }
+
+  /**
+   * @return The name.
+   */
+  public String name() {
+    return name.toString();
+  }
+
+  /**
+   * @return The number of rows in the tower.
+   */
+  public int rowCount() {
+    return numRows;
+  }
+
+  /**
+   * This method returns the whole tower.
+   *
+   * @return The tower, the same as the String returned by
+   *         {@link NameTower#generateTower(String)}.
+   */
+  public String tower() {
+    return String.join("\n", Arrays.asList(rows).subList(1, numRows + 1));
+  }
+
+  /**
+   * Returns the last place at or before the index where the name can be cut
+   * without changing how either side is uppercased. The end of the name is
+   * only a cut if the char after it was one, which is why deleteLast() looks
+   * for the cut before taking chars off.
+   */
+  private int cutAtOrBefore(int index) {
+    int cut = index;
+
+    while(cut > 0 && !isCut(cut)) {
+      cut--;
+    }
+
+    return cut;
+  }
+
+  /**
+   * Returns true if the name can be cut just before the char at the index.
+   */
+  private boolean isCut(int index) {
+    if(index == name.length()) {
+      return true;
+    }
+
+    // @formatter:off
+    return !Character.isLowSurrogate(name.charAt(index))
+        && !UpperCase.isCombining(Character.codePointAt(name, index));
+    // @formatter:on
+  }
+
+  /**
+   * Uppercase the name again from the cut, then rebuild the rows that hold any
+   * uppercase character from there on.
+   *
+   * @param cut A place where the name can be cut. Everything before it is
+   *        unchanged.
+   * @return The rows that changed.
+   */
+  private Diff update(int cut) {
+    int firstChanged = upperBefore[cut];
+    uppercaseFrom(cut);
+
+    int oldRows = numRows;
+    numRows = NameTower.rowCount(upperLength);
+
+    if(rows.length <= numRows) {
+      int capacity = grownLength(rows.length, numRows + 1);
+      rows = Arrays.copyOf(rows, capacity);
+      rowWidths = Arrays.copyOf(rowWidths, capacity);
+    }
+
+    /* The rows before the one holding the first change are unchanged. */
+    int fromRow = Math.min((int)Math.sqrt(firstChanged) + 1, numRows + 1);
+
+    for(int rowNum = fromRow; rowNum <= numRows; rowNum++) {
+      rowWidths[rowNum] = rowWidth(rowNum);
+    }
+
+    int oldMaxWidth = maxWidth;
+    maxWidth = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      maxWidth = Math.max(maxWidth, rowWidths[rowNum]);
+    }
+
+    /* The centering of every row moves with the widest row. */
+    if(numRows != oldRows || maxWidth != oldMaxWidth) {
+      fromRow = 1;
+    }
+
+    List<Row> changes = new ArrayList<>();
+
+    for(int rowNum = fromRow; rowNum <= numRows; rowNum++) {
+      String row = renderRow(rowNum);
+
+      if(rowNum > oldRows || !row.equals(rows[rowNum])) {
+        rows[rowNum] = row;
+        changes.add(new Row(rowNum, row));
+      }
+    }
+
+    Arrays.fill(rows, numRows + 1, Math.max(oldRows, numRows) + 1, null);
+
+    return new Diff(numRows, Collections.unmodifiableList(changes));
+  }
+
+  /**
+   * Uppercase the name from the cut to its end, a piece between one cut and
+   * the next at a time, so that the count of uppercase characters before every
+   * cut is known.
+   */
+  private void uppercaseFrom(int cut) {
+    if(upperBefore.length <= name.length()) {
+      upperBefore = Arrays.copyOf(upperBefore,
+          grownLength(upperBefore.length, name.length() + 1));
+    }
+
+    upperLength = upperBefore[cut];
+    int start = cut;
+
+    for(int index = cut + 1; index <= name.length(); index++) {
+      if(!isCut(index)) {
+        continue;
+      }
+
+      String piece = UpperCase.toUpperCase(name.substring(start, index),
+          nameTower.locale());
+
+      for(int pos = 0; pos < piece.length();) {
+        int codePoint = piece.codePointAt(pos);
+
+        if(upperLength == upper.length) {
+          upper = Arrays.copyOf(upper, grownLength(upper.length,
+              upperLength + 1));
+        }
+
+        upper[upperLength++] = codePoint;
+        pos += Character.charCount(codePoint);
+      }
+
+      /* Only the counts at cuts are ever read. */
+      Arrays.fill(upperBefore, start + 1, index + 1, upperLength);
+      start = index;
+    }
+  }
+
+  /**
+   * Returns the width of a row without its centering spaces, the same way
+   * {@link NameTower} measures it.
+   */
+  private int rowWidth(int rowNum) {
+    int width = 2 * NameTower.rowLength(rowNum) - 1;
+
+    if(nameTower.centering() == NameTower.Centering.CHARACTERS) {
+      return width;
+    }
+
+    for(int col = 0; col < NameTower.rowLength(rowNum); col++) {
+      width += DisplayWidth.of(charAt(NameTower.rowStart(rowNum) + col)) - 1;
+    }
+
+    return width;
+  }
+
+  /**
+   * Returns the text of a row, centered for the widest row.
+   */
+  private String renderRow(int rowNum) {
+    StringBuilder row = new StringBuilder();
+    row.append(" ".repeat((maxWidth - rowWidths[rowNum]) / 2));
+
+    for(int col = 0; col < NameTower.rowLength(rowNum); col++) {
+      if(col > 0) {
+        row.append(' ');
+      }
+
+      row.appendCodePoint(charAt(NameTower.rowStart(rowNum) + col));
+    }
+
+    return row.toString();
+  }
+
+  /**
+   * Returns the character at a place in the tower, with spaces turned into
+   * asterisks and the last row filled out with asterisks.
+   */
+  private int charAt(int index) {
+    int ch = index < upperLength ? upper[index] : '*';
+    return ch == ' ' ? '*' : ch;
+  }
+
+  /**
+   * Returns the new length of an array: at least double, worked out in long
+   * math so that doubling a big array cannot overflow.
+   */
+  private static int grownLength(int current, int needed) {
+    return (int)Math.min(Integer.MAX_VALUE - 8,
+        Math.max((long)current * 2, needed));
+  }
+}
@@ -0,0 +1,483 @@
+package name.tower;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class renders the tower for every name in a file of names, one name per
+ * line in UTF-8, into a file of towers. Each tower in the output is followed
+ * by a linefeed, the same as {@link TowerSink} writes them. Blank lines are
+ * skipped, and a carriage return at the end of a line is dropped.
+ *
+ * The names file is memory-mapped and never read line by line. It is cut into
+ * chunks at linefeeds, at least one chunk per thread, and the chunks are
+ * handled in two passes:
+ *
+ * <ol>
+ * <li>Each chunk is measured: the exact number of tower bytes for each of its
+ * names is added up. For a plain ASCII name this comes straight from
+ * {@link NameTower#outputLength(int)}. Any other name is decoded and sized by
+ * {@link TowerRenderer#byteLength(CharSequence)}. Nothing is rendered.</li>
+ * <li>Adding up the chunk sizes gives where each chunk's towers start in the
+ * output file, which is then created at its full size. Each chunk maps its
+ * own region of the output file and renders its towers straight into it with
+ * a {@link TowerRenderer}.</li>
+ * </ol>
+ *
+ * ASCII names are rendered from the mapped bytes without being decoded into a
+ * String. Other names are decoded first. The towers are the ones the
+ * processor's {@link NameTower} returns. The ASCII shortcut uppercases with
+ * the {@link Latin1Case} table, so in Turkish and Azerbaijani ASCII names are
+ * rendered by a {@link TowerRenderer} like any other name. No chunk has to
+ * wait for another, so the threads run flat out until the last chunk is
+ * done.
+ *
+ * @author Promineo
+ *
+ */
+public class TowerFileProcessor {
+  /** The most bytes of the names file that one chunk holds. */
+  static final int MAX_CHUNK_SIZE = 1 << 28;
+
+  private static final int SCAN_BLOCK_SIZE = 1 << 12;
+
+  private final NameTower nameTower;
+  private final Executor executor;
+  private final int parallelism;
+
+  /**
+   * The numbers from one run.
+   *
+   * @param nameCount The number of names (towers).
+   * @param inputBytes The size of the names file.
+   * @param outputBytes The size of the towers file.
+   * @param nanos The time the run took, in nanoseconds.
+   */
+  public record Stats(long nameCount, long inputBytes, long outputBytes,
+      long nanos) {
+
+    /**
+     * @return The number of bytes of names read per nanosecond, which is the
+     *         same as gigabytes per second.
+     */
+    public double gigabytesPerSecond() {
+      return nanos == 0 ? Double.POSITIVE_INFINITY
+          : (double)inputBytes / nanos;
+    }
+
+    /**
+     * @return The number of bytes of towers written per nanosecond, which is
+     *         the same as gigabytes per second.
+     */
+    public double outputGigabytesPerSecond() {
+      return nanos == 0 ? Double.POSITIVE_INFINITY
+          : (double)outputBytes / nanos;
+    }
+  }
+
+  /**
+   * Create a processor that runs on the common pool with one chunk per pool
+   * thread and renders towers the way {@link NameTower#NameTower()} does.
+   */
+  public TowerFileProcessor() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a processor that runs on the common pool with one chunk per pool
+   * thread.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public TowerFileProcessor(NameTower nameTower) {
+    this(nameTower, ForkJoinPool.commonPool(),
+        ForkJoinPool.commonPool().getParallelism());
+  }
+
+  /**
+   * Create a processor that renders towers the way
+   * {@link NameTower#NameTower()} does.
+   *
+   * @param executor The executor that runs the chunks.
+   * @param parallelism The number of threads to cut the names file for.
+   * @throws IllegalArgumentException Thrown if parallelism is less than one.
+   */
+  public TowerFileProcessor(Executor executor, int parallelism) {
+    this(new NameTower(), executor, parallelism);
+  }
+
+  /**
+   * Create a processor.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   * @param executor The executor that runs the chunks.
+   * @param parallelism The number of threads to cut the names file for.
+   * @throws IllegalArgumentException Thrown if parallelism is less than one.
+   */
+  public TowerFileProcessor(NameTower nameTower, Executor executor,
+      int parallelism) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+    this.executor = Objects.requireNonNull(executor,
+        "Executor must not be null!");
+
+    if(parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Parallelism must be at least one but was " + parallelism);
+    }
+
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Render the towers for the names in one file into another. Run it with the
+   * names file and the towers file:
+   *
+   * <pre>
+   * java -cp final-class.jar name.tower.TowerFileProcessor names.txt towers.txt
+   * </pre>
+   *
+   * @param args The names file and the towers file.
+   * @throws IOException Thrown if a file cannot be read or written.
+   */
+  public static void main(String[] args) throws IOException {
+    if(args.length != 2) {
+      System.err.println("Usage: TowerFileProcessor <names file> "
+          + "<towers file>");
+      System.exit(1);
+    }
+
+    Stats stats =
+        new TowerFileProcessor().process(Path.of(args[0]), Path.of(args[1]));
+
+    System.out.printf(
+        "Rendered %,d towers from %,d bytes into %,d bytes in %.3f s "
+            + "(%.2f GB/s in, %.2f GB/s out)%n",
+        stats.nameCount(), stats.inputBytes(), stats.outputBytes(),
+        stats.nanos() / 1e9, stats.gigabytesPerSecond(),
+        stats.outputGigabytesPerSecond());
+  }
+
+  /**
+   * This method renders the tower for every name in the names file into the
+   * towers file. The towers file is replaced if it exists.
+   *
+   * @param namesFile The file of names, one per line in UTF-8.
+   * @param towersFile The file to which the towers are written.
+   * @return The number of names, the sizes of the files and the time taken.
+   * @throws IOException Thrown if a file cannot be read or written, or a
+   *         single line is too long to be memory-mapped.
+   * @throws IllegalArgumentException Thrown if the tower for a name is too
+   *         big to render. The towers file is left empty in that case.
+   */
+  public Stats process(Path namesFile, Path towersFile) throws IOException {
+    Objects.requireNonNull(namesFile, "Names file must not be null!");
+    Objects.requireNonNull(towersFile, "Towers file must not be null!");
+
+    long start = System.nanoTime();
+
+    try(FileChannel in = FileChannel.open(namesFile, StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(towersFile,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      List<Chunk> chunks = cut(in);
+
+      runAll(chunks, chunk -> chunk.measure(in));
+
+      long outputBytes = 0;
+      long nameCount = 0;
+
+      for(Chunk chunk : chunks) {
+        chunk.outputStart = outputBytes;
+        outputBytes += chunk.outputSize;
+        nameCount += chunk.nameCount;
+      }
+
+      /* Set the file to its full size before any region of it is mapped. */
+      if(outputBytes > 0) {
+        out.write(ByteBuffer.allocate(1), outputBytes - 1);
+      }
+
+      runAll(chunks, chunk -> chunk.render(in, out));
+
+      return new Stats(nameCount, in.size(), outputBytes,
+          System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Cut the names file into chunks that end just after a linefeed (or at the
+   * end of the file). There is at least one chunk per thread, and each chunk
+   * is about {@link #MAX_CHUNK_SIZE} bytes or less, running on to the end of
+   * the line it stops in.
+   */
+  private List<Chunk> cut(FileChannel in) throws IOException {
+    long size = in.size();
+    long numChunks = Math.max(parallelism,
+        (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    long target = Math.max(1, (size + numChunks - 1) / numChunks);
+    List<Chunk> chunks = new ArrayList<>();
+    long start = 0;
+
+    while(start < size) {
+      long end = start + target >= size ? size
+          : endOfLine(in, start + target, size);
+
+      if(end - start > Integer.MAX_VALUE) {
+        throw new IOException(
+            "A line near byte " + start + " is too long to be mapped!");
+      }
+
+      chunks.add(new Chunk(nameTower, start, end));
+      start = end;
+    }
+
+    return chunks;
+  }
+
+  /**
+   * Returns the position just after the first linefeed at or after the given
+   * position, or the end of the file if there is none.
+   */
+  private static long endOfLine(FileChannel in, long from, long size)
+      throws IOException {
+    ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+
+    for(long pos = from; pos < size; pos += block.limit()) {
+      block.clear();
+      in.read(block, pos);
+      block.flip();
+
+      for(int index = 0; index < block.limit(); index++) {
+        if(block.get(index) == '\n') {
+          return pos + index + 1;
+        }
+      }
+    }
+
+    return size;
+  }
+
+  /**
+   * Run the step for every chunk on the executor and wait for all of them.
+   */
+  private void runAll(List<Chunk> chunks, ChunkStep step) throws IOException {
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(chunks.size());
+
+    for(Chunk chunk : chunks) {
+      tasks.add(CompletableFuture.runAsync(() -> {
+        try {
+          step.run(chunk);
+        }
+        catch(IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, executor));
+    }
+
+    try {
+      CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+    catch(CompletionException e) {
+      if(e.getCause() instanceof UncheckedIOException cause) {
+        throw cause.getCause();
+      }
+
+      if(e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * One pass over a chunk.
+   */
+  @FunctionalInterface
+  private interface ChunkStep {
+    void run(Chunk chunk) throws IOException;
+  }
+
+  /**
+   * A run of whole lines of the names file, and where its towers go in the
+   * towers file.
+   */
+  private static final class Chunk {
+    private final long inputStart;
+    private final long inputEnd;
+    private long outputStart;
+    private long outputSize;
+    private long nameCount;
+
+    private final TowerRenderer renderer;
+    private final boolean asciiSafe;
+    private final AsciiName ascii = new AsciiName();
+    private byte[] scratch = new byte[0];
+    private ByteBuffer input;
+    private int lineStart;
+    private int lineEnd;
+    private int next;
+
+    Chunk(NameTower nameTower, long inputStart, long inputEnd) {
+      this.renderer = new TowerRenderer(nameTower);
+      this.asciiSafe = Latin1Case.isUsable(nameTower.locale());
+      this.inputStart = inputStart;
+      this.inputEnd = inputEnd;
+    }
+
+    /**
+     * Add up the number of names and the number of tower bytes.
+     */
+    void measure(FileChannel in) throws IOException {
+      start(in);
+
+      while(nextLine()) {
+        int length = lineEnd - lineStart;
+        nameCount++;
+
+        if(asciiSafe && isAscii()) {
+          outputSize += NameTower.outputLength(length) + 1;
+        }
+        else {
+          long bytes = renderer.byteLength(name());
+
+          if(bytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The tower for the name at byte "
+                + (inputStart + lineStart) + " needs " + bytes
+                + " bytes, too many to render!");
+          }
+
+          outputSize += bytes + 1;
+        }
+      }
+    }
+
+    /**
+     * Render every tower, each followed by a linefeed, into this chunk's
+     * region of the towers file.
+     */
+    void render(FileChannel in, FileChannel out) throws IOException {
+      if(outputSize > Integer.MAX_VALUE) {
+        throw new IOException("The towers for the names from byte "
+            + inputStart + " do not fit in one mapping!");
+      }
+
+      MappedByteBuffer output = out.map(FileChannel.MapMode.READ_WRITE,
+          outputStart, outputSize);
+      start(in);
+
+      while(nextLine()) {
+        int length = lineEnd - lineStart;
+
+        boolean byLayout =
+            asciiSafe && length <= TowerLayout.MAX_CACHED_LENGTH && isAscii();
+
+        if(byLayout) {
+          TowerLayout layout = TowerLayout.forLength(length);
+          layout.renderAscii(input, lineStart, output, output.position());
+          output.position(output.position() + layout.outputLength());
+        }
+        else {
+          renderer.render(name(), output);
+        }
+
+        output.put((byte)'\n');
+      }
+    }
+
+    /**
+     * Map the chunk and go back to its first line.
+     */
+    private void start(FileChannel in) throws IOException {
+      input = in.map(FileChannel.MapMode.READ_ONLY, inputStart,
+          inputEnd - inputStart);
+      next = 0;
+    }
+
+    /**
+     * Move to the next line that is not blank.
+     *
+     * @return false if there are no more lines.
+     */
+    private boolean nextLine() {
+      while(next < input.limit()) {
+        lineStart = next;
+        lineEnd = lineStart;
+
+        while(lineEnd < input.limit() && input.get(lineEnd) != '\n') {
+          lineEnd++;
+        }
+
+        next = lineEnd + 1;
+
+        if(lineEnd > lineStart && input.get(lineEnd - 1) == '\r') {
+          lineEnd--;
+        }
+
+        if(lineEnd > lineStart) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Returns true if every byte of the line is ASCII.
+     */
+    private boolean isAscii() {
+      for(int index = lineStart; index < lineEnd; index++) {
+        if(input.get(index) < 0) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    /**
+     * Returns the line as a name: a view of its bytes if it is ASCII, or else
+     * the line decoded from UTF-8.
+     */
+    private CharSequence name() {
+      if(isAscii()) {
+        ascii.wrap(input, lineStart, lineEnd - lineStart);
+        return ascii;
+      }
+
+      return decode();
+    }
+
+    /**
+     * Returns the line decoded from UTF-8.
+     */
+    private String decode() {
+      ensureScratch(lineEnd - lineStart);
+      input.get(lineStart, scratch, 0, lineEnd - lineStart);
+
+      return new String(scratch, 0, lineEnd - lineStart,
+          StandardCharsets.UTF_8);
+    }
+
+    private void ensureScratch(int length) {
+      if(scratch.length < length) {
+        scratch = new byte[(int)Math.min(Integer.MAX_VALUE - 8,
+            Math.max(2L * scratch.length, length))];
+      }
+    }
+  }
+}
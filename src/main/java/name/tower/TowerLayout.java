@@ -0,0 +1,269 @@
+package name.tower;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class holds everything about a name tower that depends only on the
+ * length of the name: the number of rows, where each row starts, the centering
+ * spaces, the spaces between characters, the linefeeds, the asterisks that pad
+ * out the last row and the position in the finished tower of every character
+ * of the name.
+ *
+ * The layout is kept in two arrays. The template is the finished tower with
+ * every name character left blank. The positions array gives, for each
+ * character of the name, where it goes in the tower. Rendering a name is then
+ * just a copy of the template followed by one loop that drops each name
+ * character into its position.
+ *
+ * Layouts for names up to {@link #MAX_CACHED_LENGTH} characters are built once
+ * and shared. Most names are short, so nearly every tower is rendered from a
+ * shared layout. Layouts for longer names are built on each call since their
+ * arrays are as big as the tower itself.
+ *
+ * @author Promineo
+ *
+ */
+final class TowerLayout {
+  /** The longest name length for which the layout is cached. */
+  static final int MAX_CACHED_LENGTH = 1024;
+
+  private static final AtomicReferenceArray<TowerLayout> CACHE =
+      new AtomicReferenceArray<>(MAX_CACHED_LENGTH + 1);
+
+  private final int nameLength;
+  private final int rowCount;
+  private final char[] template;
+  private final byte[] asciiTemplate;
+  private final int[] positions;
+
+  /**
+   * Build the layout for a name of the given length.
+   *
+   * @param nameLength The number of characters in the name.
+   */
+  private TowerLayout(int nameLength) {
+    this.nameLength = nameLength;
+    this.rowCount = NameTower.rowCount(nameLength);
+    this.template = new char[NameTower.outputLengthForRows(rowCount)];
+    this.positions = new int[nameLength];
+
+    int maxLength = NameTower.rowLength(rowCount);
+    int pos = 0;
+    int src = 0;
+
+    for(int rowNum = 1; rowNum <= rowCount; rowNum++) {
+      if(rowNum > 1) {
+        template[pos++] = '\n';
+      }
+
+      int padLen = maxLength - NameTower.rowLength(rowNum);
+      Arrays.fill(template, pos, pos + padLen, ' ');
+      pos += padLen;
+
+      for(int col = 0; col < NameTower.rowLength(rowNum); col++) {
+        if(col > 0) {
+          template[pos++] = ' ';
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        if(src < nameLength) {
+          positions[src++] = pos;
+        }
+        else {
+          template[pos] = '*';
+        }
+
+        pos++;
+      }
+    }
+
+    /* The template only holds spaces, linefeeds and asterisks. */
+    asciiTemplate = new byte[template.length];
+
+    for(int index = 0; index < template.length; index++) {
+      asciiTemplate[index] = (byte)template[index];
+    }
+  }
+
+  /**
+   * Returns the layout for a name of the given length. The layout is shared if
+   * the length is no more than {@link #MAX_CACHED_LENGTH}.
+   *
+   * @param nameLength The number of characters in the name.
+   * @return The layout.
+   * @throws IllegalArgumentException Thrown if the length is negative.
+   */
+  static TowerLayout forLength(int nameLength) {
+    if(nameLength < 0) {
+      throw new IllegalArgumentException(
+          "Name length must not be negative but was " + nameLength);
+    }
+
+    if(nameLength > MAX_CACHED_LENGTH) {
+      return new TowerLayout(nameLength);
+    }
+
+    TowerLayout layout = CACHE.get(nameLength);
+
+    if(layout == null) {
+      /* If two threads race, both layouts are the same so either can win. */
+      layout = new TowerLayout(nameLength);
+      CACHE.compareAndSet(nameLength, null, layout);
+    }
+
+    return layout;
+  }
+
+  /**
+   * @return The number of characters in the name.
+   */
+  int nameLength() {
+    return nameLength;
+  }
+
+  /**
+   * @return The number of rows in the tower.
+   */
+  int rowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return The number of characters in the finished tower.
+   */
+  int outputLength() {
+    return template.length;
+  }
+
+  /**
+   * Returns the position in the finished tower of a character of the name.
+   *
+   * @param index The index of the character in the name.
+   * @return The index of the character in the tower.
+   */
+  int positionOf(int index) {
+    return positions[index];
+  }
+
+  /**
+   * Write the tower for the given uppercased name into the array. The template
+   * is copied in first and then each name character is dropped into its
+   * position, with spaces turned into asterisks.
+   *
+   * @param upper The name, already uppercased. It must be
+   *        {@link #nameLength()} characters long.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   */
+  void render(CharSequence upper, char[] dest, int offset) {
+    System.arraycopy(template, 0, dest, offset, template.length);
+
+    for(int index = 0; index < positions.length; index++) {
+      char ch = upper.charAt(index);
+      dest[offset + positions[index]] = ch == ' ' ? '*' : ch;
+    }
+  }
+
+  /**
+   * Write the tower for a Latin-1 name into a char array. Each character is
+   * looked up in the {@link Latin1Case} table, which uppercases it and turns
+   * spaces into asterisks.
+   *
+   * @param name The name, not yet uppercased. It must be {@link #nameLength()}
+   *        characters long and {@link Latin1Case#canRender(CharSequence)} must
+   *        be true for it.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   */
+  void renderLatin1(CharSequence name, char[] dest, int offset) {
+    System.arraycopy(template, 0, dest, offset, template.length);
+
+    for(int index = 0; index < positions.length; index++) {
+      dest[offset + positions[index]] =
+          (char)Latin1Case.towerChar(name.charAt(index));
+    }
+  }
+
+  /**
+   * Write the tower for a Latin-1 name into a byte array, one byte per
+   * character. Each character is looked up in the {@link Latin1Case} table,
+   * which uppercases it and turns spaces into asterisks.
+   *
+   * @param name The name, not yet uppercased. It must be {@link #nameLength()}
+   *        characters long and {@link Latin1Case#canRender(CharSequence)} must
+   *        be true for it.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   */
+  void renderLatin1(CharSequence name, byte[] dest, int offset) {
+    System.arraycopy(asciiTemplate, 0, dest, offset, asciiTemplate.length);
+
+    for(int index = 0; index < positions.length; index++) {
+      dest[offset + positions[index]] =
+          (byte)Latin1Case.towerChar(name.charAt(index));
+    }
+  }
+
+  /**
+   * Write the tower for a Latin-1 name into a ByteBuffer, one byte per
+   * character, as {@link #renderLatin1(CharSequence, byte[], int)} does. The
+   * buffer's position is not changed.
+   *
+   * @param name The name, not yet uppercased. It must be {@link #nameLength()}
+   *        characters long and {@link Latin1Case#canRender(CharSequence)} must
+   *        be true for it.
+   * @param dest The buffer to which the tower is written.
+   * @param offset Where in the buffer to start writing.
+   */
+  void renderLatin1(CharSequence name, ByteBuffer dest, int offset) {
+    dest.put(offset, asciiTemplate);
+
+    for(int index = 0; index < positions.length; index++) {
+      dest.put(offset + positions[index],
+          (byte)Latin1Case.towerChar(name.charAt(index)));
+    }
+  }
+
+  /**
+   * Write the tower for a name held as ASCII bytes into a byte array. Each
+   * byte is looked up in the {@link Latin1Case} table, which uppercases it and
+   * turns spaces into asterisks.
+   *
+   * @param src The buffer holding the name. Its position is not changed.
+   * @param srcOffset Where in the buffer the name starts. The name must be
+   *        {@link #nameLength()} bytes long and every byte must be ASCII.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   */
+  void renderAscii(ByteBuffer src, int srcOffset, byte[] dest, int offset) {
+    System.arraycopy(asciiTemplate, 0, dest, offset, asciiTemplate.length);
+
+    for(int index = 0; index < positions.length; index++) {
+      dest[offset + positions[index]] =
+          (byte)Latin1Case.towerChar(src.get(srcOffset + index));
+    }
+  }
+
+  /**
+   * Write the tower for a name held as ASCII bytes into a ByteBuffer, as
+   * {@link #renderAscii(ByteBuffer, int, byte[], int)} does. The positions of
+   * both buffers are not changed.
+   *
+   * @param src The buffer holding the name.
+   * @param srcOffset Where in the buffer the name starts. The name must be
+   *        {@link #nameLength()} bytes long and every byte must be ASCII.
+   * @param dest The buffer to which the tower is written.
+   * @param offset Where in the buffer to start writing.
+   */
+  void renderAscii(ByteBuffer src, int srcOffset, ByteBuffer dest,
+      int offset) {
+    dest.put(offset, asciiTemplate);
+
+    for(int index = 0; index < positions.length; index++) {
+      dest.put(offset + positions[index],
+          (byte)Latin1Case.towerChar(src.get(srcOffset + index)));
+    }
+  }
+}
@@ -0,0 +1,623 @@
+package name.tower;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class renders name towers into arrays supplied by the caller. Each
+ * tower is the same as the one returned by
+ * {@link NameTower#generateTower(String)}, as chars or as UTF-8 bytes. Bytes
+ * can go into an array or a ByteBuffer.
+ *
+ * A renderer owns the scratch arrays it works in: the uppercased name, the
+ * width of each row and, for byte output, the tower as chars before it is
+ * encoded. UTF-8 is encoded straight into the destination. The arrays
+ * grow when a longer name comes along and are never shrunk, so once a
+ * renderer has seen names as long as the ones it is given, rendering a tower
+ * allocates nothing at all. This is the class to use on a
+ * hot path that must not make garbage.
+ *
+ * Short names made only of Latin-1 characters are rendered straight from the
+ * name through the shared {@link TowerLayout} for their length, without being
+ * copied into the scratch array first.
+ *
+ * There are a few cases that still allocate. A character that becomes more
+ * than one character when uppercased (the German sharp s, for one) is looked
+ * up through String.toUpperCase(). In Turkish, Azerbaijani and Lithuanian the
+ * whole name is (see {@link UpperCase}).
+ *
+ * An empty name has an empty tower, so it renders as nothing.
+ *
+ * A renderer is not thread safe. Give each thread its own, for instance
+ * through a ThreadLocal, or keep them in a pool.
+ *
+ * @author Promineo
+ *
+ */
+public class TowerRenderer {
+  private static final int MIN_SCRATCH_LENGTH = 64;
+
+  private final NameTower nameTower;
+  private final boolean tableUsable;
+  private final boolean latin1Usable;
+  private final boolean byWidth;
+
+  private char[] upper = new char[MIN_SCRATCH_LENGTH];
+  private int[] rowWidths = new int[MIN_SCRATCH_LENGTH];
+  private char[] tower = new char[MIN_SCRATCH_LENGTH];
+
+  /* The name last given to prepare(). */
+  private int upperLength;
+  private int numRows;
+  private int maxWidth;
+
+  /* The name last given to prepareBytes(), and how it is written. */
+  private CharSequence preparedName;
+  private boolean preparedByLayout;
+  private boolean preparedAscii;
+  private int preparedChars;
+
+  /**
+   * Create a renderer that uppercases with the root locale and centers by
+   * character count.
+   */
+  public TowerRenderer() {
+    this(new NameTower());
+  }
+
+  /**
+   * Create a renderer that renders the same towers as the given NameTower.
+   *
+   * @param nameTower The NameTower whose locale and centering are used.
+   */
+  public TowerRenderer(NameTower nameTower) {
+    this.nameTower =
+        Objects.requireNonNull(nameTower, "Name tower must not be null!");
+    this.tableUsable = UpperCase.isTableUsable(nameTower.locale());
+    this.latin1Usable = Latin1Case.isUsable(nameTower.locale());
+    this.byWidth = nameTower.centering() == NameTower.Centering.DISPLAY_WIDTH;
+  }
+
+  /**
+   * Returns the number of chars in the tower for the given name. This is the
+   * size of the array {@link #render(CharSequence, char[], int)} needs.
+   * {@link #byteLength(CharSequence)} gives the size of the UTF-8 form.
+   *
+   * @param name The name.
+   * @return The number of chars in the tower.
+   */
+  public int towerLength(CharSequence name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    if(isLayoutRenderable(name)) {
+      return TowerLayout.forLength(name.length()).outputLength();
+    }
+
+    return prepare(name);
+  }
+
+  /**
+   * Returns the number of bytes in the UTF-8 form of the tower for the given
+   * name, worked out without rendering the tower. Every char of a tower that
+   * does not come from the name (a space, an asterisk or a linefeed) is ASCII,
+   * so this is the number of chars in the tower plus the extra bytes taken by
+   * the uppercased name.
+   *
+   * @param name The name.
+   * @return The number of bytes in the UTF-8 form of the tower.
+   */
+  public long byteLength(CharSequence name) {
+    Objects.requireNonNull(name, "Name must not be null!");
+    return prepareBytes(name);
+  }
+
+  /**
+   * Uppercase and measure the name, ready for its tower to be written as UTF-8
+   * by {@link #writePrepared(ByteBuffer)}. Together they uppercase the name
+   * once and encode the tower once, straight into the buffer.
+   *
+   * @param name The name.
+   * @return The number of bytes in the UTF-8 form of the tower.
+   */
+  long prepareBytes(CharSequence name) {
+    preparedName = name;
+    preparedByLayout = isLayoutRenderable(name);
+
+    if(preparedByLayout) {
+      preparedChars = TowerLayout.forLength(name.length()).outputLength();
+      long length = preparedChars;
+
+      /* A Latin-1 tower char above ASCII takes two bytes. */
+      for(int index = 0; index < name.length(); index++) {
+        if(Latin1Case.towerChar(name.charAt(index)) >= 0x80) {
+          length++;
+        }
+      }
+
+      preparedAscii = length == preparedChars;
+      return length;
+    }
+
+    preparedChars = prepare(name);
+    preparedAscii = false;
+
+    return preparedChars + utf8Length(upper, upperLength) - upperLength;
+  }
+
+  /**
+   * Write the UTF-8 form of the tower for the name last given to
+   * {@link #prepareBytes(CharSequence)} at the buffer's position, and move the
+   * position past it. The buffer must have room for the whole tower.
+   *
+   * @param dest The buffer to which the tower is written.
+   */
+  void writePrepared(ByteBuffer dest) {
+    /* A tower of ASCII characters is its own UTF-8 encoding. */
+    if(preparedAscii) {
+      TowerLayout.forLength(preparedName.length()).renderLatin1(preparedName,
+          dest, dest.position());
+      dest.position(dest.position() + preparedChars);
+      return;
+    }
+
+    ensureTower(preparedChars);
+
+    if(preparedByLayout) {
+      TowerLayout.forLength(preparedName.length()).renderLatin1(preparedName,
+          tower, 0);
+    }
+    else {
+      write(tower, 0);
+    }
+
+    encodeUtf8(tower, preparedChars, dest);
+  }
+
+  /**
+   * This method renders the tower for the given name into a char array.
+   *
+   * @param name The name from which to generate the tower.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   * @return The number of chars written.
+   * @throws IndexOutOfBoundsException Thrown if the tower does not fit in the
+   *         array after the offset. Nothing is written in that case.
+   */
+  public int render(CharSequence name, char[] dest, int offset) {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(dest, "Destination must not be null!");
+
+    if(isLayoutRenderable(name)) {
+      TowerLayout layout = TowerLayout.forLength(name.length());
+      Objects.checkFromIndexSize(offset, layout.outputLength(), dest.length);
+      layout.renderLatin1(name, dest, offset);
+
+      return layout.outputLength();
+    }
+
+    int length = prepare(name);
+    Objects.checkFromIndexSize(offset, length, dest.length);
+    write(dest, offset);
+
+    return length;
+  }
+
+  /**
+   * This method renders the tower for the given name into a byte array as
+   * UTF-8.
+   *
+   * @param name The name from which to generate the tower.
+   * @param dest The array to which the tower is written.
+   * @param offset Where in the array to start writing.
+   * @return The number of bytes written.
+   * @throws IndexOutOfBoundsException Thrown if the tower does not fit in the
+   *         array after the offset. Nothing is written in that case.
+   */
+  public int render(CharSequence name, byte[] dest, int offset) {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(dest, "Destination must not be null!");
+
+    /* A tower of ASCII characters is its own UTF-8 encoding. */
+    if(isLayoutRenderable(name) && isAscii(name)) {
+      TowerLayout layout = TowerLayout.forLength(name.length());
+      Objects.checkFromIndexSize(offset, layout.outputLength(), dest.length);
+      layout.renderLatin1(name, dest, offset);
+
+      return layout.outputLength();
+    }
+
+    int length = renderToScratch(name);
+    long byteLength = utf8Length(tower, length);
+    Objects.checkFromIndexSize(offset, byteLength, (long)dest.length);
+
+    return encodeUtf8(tower, length, dest, offset);
+  }
+
+  /**
+   * This method renders the tower for the given name into a ByteBuffer as
+   * UTF-8. The tower is written at the buffer's position, which is moved past
+   * it. The buffer can be a heap buffer or a direct buffer, so a tower can be
+   * written straight into the buffer that is handed to a channel.
+   *
+   * @param name The name from which to generate the tower.
+   * @param dest The buffer to which the tower is written.
+   * @return The number of bytes written.
+   * @throws BufferOverflowException Thrown if the tower does not fit in the
+   *         buffer's remaining space. Nothing is written in that case.
+   * @throws ReadOnlyBufferException Thrown if the buffer is read-only.
+   */
+  public int render(CharSequence name, ByteBuffer dest) {
+    Objects.requireNonNull(name, "Name must not be null!");
+    Objects.requireNonNull(dest, "Destination must not be null!");
+
+    if(dest.isReadOnly()) {
+      throw new ReadOnlyBufferException();
+    }
+
+    long byteLength = prepareBytes(name);
+
+    if(byteLength > dest.remaining()) {
+      throw new BufferOverflowException();
+    }
+
+    writePrepared(dest);
+
+    return (int)byteLength;
+  }
+
+  /**
+   * Render the tower as chars into the tower scratch array, ready to be
+   * encoded.
+   *
+   * @param name The name.
+   * @return The number of chars in the tower.
+   */
+  private int renderToScratch(CharSequence name) {
+    int length = towerLength(name);
+    ensureTower(length);
+
+    if(isLayoutRenderable(name)) {
+      TowerLayout.forLength(name.length()).renderLatin1(name, tower, 0);
+    }
+    else {
+      write(tower, 0);
+    }
+
+    return length;
+  }
+
+  /**
+   * Returns true if the name can be rendered from a shared layout through the
+   * {@link Latin1Case} table. Every Latin-1 character takes one column, so this
+   * does not depend on the centering.
+   */
+  private boolean isLayoutRenderable(CharSequence name) {
+    // @formatter:off
+    return latin1Usable
+        && name.length() > 0
+        && name.length() <= TowerLayout.MAX_CACHED_LENGTH
+        && Latin1Case.canRender(name);
+    // @formatter:on
+  }
+
+  /**
+   * Returns true if every character in the name is ASCII.
+   */
+  private static boolean isAscii(CharSequence name) {
+    for(int index = 0; index < name.length(); index++) {
+      if(name.charAt(index) >= 0x80) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Uppercase the name into the scratch array, then work out the number of
+   * rows, the width of each row and the length of the tower.
+   *
+   * @param name The name.
+   * @return The number of chars in the tower.
+   */
+  private int prepare(CharSequence name) {
+    upperLength = toUpperCase(name);
+    int count = Character.codePointCount(upper, 0, upperLength);
+    numRows = NameTower.rowCount(count);
+
+    long squares = (long)numRows * numRows;
+    long asterisks = squares - count;
+    long separators = squares - numRows;
+    long linefeeds = Math.max(numRows - 1, 0);
+    long padding;
+
+    if(byWidth) {
+      padding = measureRows();
+    }
+    else {
+      maxWidth = 2 * NameTower.rowLength(numRows) - 1;
+      padding = squares - numRows;
+    }
+
+    long length =
+        upperLength + asterisks + separators + linefeeds + padding;
+
+    if(length > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(
+          "A tower with " + numRows + " rows is too big to fit in an array!");
+    }
+
+    return (int)length;
+  }
+
+  /**
+   * Convert the name to uppercase into the scratch array. Each code point is
+   * uppercased on its own, which gives the same result as String.toUpperCase()
+   * for the locales where {@link UpperCase#isTableUsable(java.util.Locale)} is
+   * true.
+   *
+   * @param name The name.
+   * @return The number of chars in the uppercased name.
+   */
+  private int toUpperCase(CharSequence name) {
+    if(!tableUsable) {
+      String upperName = name.toString().toUpperCase(nameTower.locale());
+      ensureUpper(upperName.length());
+      upperName.getChars(0, upperName.length(), upper, 0);
+
+      return upperName.length();
+    }
+
+    ensureUpper(name.length());
+    int length = 0;
+
+    for(int index = 0; index < name.length();) {
+      int codePoint = Character.codePointAt(name, index);
+      int up = UpperCase.toUpperCase(codePoint);
+      index += Character.charCount(codePoint);
+
+      if(up == UpperCase.EXPANDS) {
+        String expansion = UpperCase.expand(codePoint);
+        ensureUpper(length + expansion.length());
+        expansion.getChars(0, expansion.length(), upper, length);
+        length += expansion.length();
+      }
+      else {
+        ensureUpper(length + 2);
+        length += Character.toChars(up, upper, length);
+      }
+    }
+
+    return length;
+  }
+
+  /**
+   * Find the width of each row, in columns, and of the widest row.
+   *
+   * @return The number of centering spaces in the whole tower.
+   */
+  private long measureRows() {
+    ensureRowWidths(numRows + 1);
+    maxWidth = 0;
+    int index = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      int rowWidth = 2 * NameTower.rowLength(rowNum) - 1;
+
+      /* The asterisks that fill out the last row take one column each. */
+      for(int col = 0; col < NameTower.rowLength(rowNum)
+          && index < upperLength; col++) {
+        int ch = Character.codePointAt(upper, index, upperLength);
+        index += Character.charCount(ch);
+        rowWidth += DisplayWidth.of(ch == ' ' ? '*' : ch) - 1;
+      }
+
+      rowWidths[rowNum] = rowWidth;
+      maxWidth = Math.max(maxWidth, rowWidth);
+    }
+
+    long padding = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      padding += (maxWidth - rowWidths[rowNum]) / 2;
+    }
+
+    return padding;
+  }
+
+  /**
+   * Write the tower for the name last given to {@link #prepare(CharSequence)}.
+   * The array must have room for the whole tower.
+   */
+  private void write(char[] dest, int offset) {
+    int pos = offset;
+    int index = 0;
+
+    for(int rowNum = 1; rowNum <= numRows; rowNum++) {
+      if(rowNum > 1) {
+        dest[pos++] = '\n';
+      }
+
+      int rowWidth = byWidth ? rowWidths[rowNum]
+          : 2 * NameTower.rowLength(rowNum) - 1;
+      int padLen = (maxWidth - rowWidth) / 2;
+      Arrays.fill(dest, pos, pos + padLen, ' ');
+      pos += padLen;
+
+      for(int col = 0; col < NameTower.rowLength(rowNum); col++) {
+        if(col > 0) {
+          dest[pos++] = ' ';
+        }
+
+        /* Past the end of the name the last row is filled with asterisks. */
+        int ch = '*';
+
+        if(index < upperLength) {
+          ch = Character.codePointAt(upper, index, upperLength);
+          index += Character.charCount(ch);
+        }
+
+        pos += Character.toChars(ch == ' ' ? '*' : ch, dest, pos);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bytes in the UTF-8 encoding of the chars. A lone
+   * surrogate is encoded as '?', the same as String.getBytes() does.
+   */
+  private static long utf8Length(char[] chars, int length) {
+    long byteLength = 0;
+
+    for(int index = 0; index < length; index++) {
+      char ch = chars[index];
+
+      if(ch < 0x80) {
+        byteLength++;
+      }
+      else if(ch < 0x800) {
+        byteLength += 2;
+      }
+      else if(isSurrogatePair(chars, index, length)) {
+        byteLength += 4;
+        index++;
+      }
+      else if(Character.isSurrogate(ch)) {
+        byteLength++;
+      }
+      else {
+        byteLength += 3;
+      }
+    }
+
+    return byteLength;
+  }
+
+  /**
+   * Encode the chars as UTF-8 into the array, which must have room for them.
+   *
+   * @return The number of bytes written.
+   */
+  private static int encodeUtf8(char[] chars, int length, byte[] dest,
+      int offset) {
+    int pos = offset;
+
+    for(int index = 0; index < length; index++) {
+      char ch = chars[index];
+
+      if(ch < 0x80) {
+        dest[pos++] = (byte)ch;
+      }
+      else if(ch < 0x800) {
+        dest[pos++] = (byte)(0xC0 | ch >> 6);
+        dest[pos++] = (byte)(0x80 | ch & 0x3F);
+      }
+      else if(isSurrogatePair(chars, index, length)) {
+        int codePoint = Character.toCodePoint(ch, chars[++index]);
+        dest[pos++] = (byte)(0xF0 | codePoint >> 18);
+        dest[pos++] = (byte)(0x80 | codePoint >> 12 & 0x3F);
+        dest[pos++] = (byte)(0x80 | codePoint >> 6 & 0x3F);
+        dest[pos++] = (byte)(0x80 | codePoint & 0x3F);
+      }
+      else if(Character.isSurrogate(ch)) {
+        dest[pos++] = '?';
+      }
+      else {
+        dest[pos++] = (byte)(0xE0 | ch >> 12);
+        dest[pos++] = (byte)(0x80 | ch >> 6 & 0x3F);
+        dest[pos++] = (byte)(0x80 | ch & 0x3F);
+      }
+    }
+
+    return pos - offset;
+  }
+
+  /**
+   * Encode the chars as UTF-8 at the buffer's position, which must have room
+   * for them, and move the position past them.
+   */
+  private static void encodeUtf8(char[] chars, int length, ByteBuffer dest) {
+    int pos = dest.position();
+
+    for(int index = 0; index < length; index++) {
+      char ch = chars[index];
+
+      if(ch < 0x80) {
+        dest.put(pos++, (byte)ch);
+      }
+      else if(ch < 0x800) {
+        dest.put(pos++, (byte)(0xC0 | ch >> 6));
+        dest.put(pos++, (byte)(0x80 | ch & 0x3F));
+      }
+      else if(isSurrogatePair(chars, index, length)) {
+        int codePoint = Character.toCodePoint(ch, chars[++index]);
+        dest.put(pos++, (byte)(0xF0 | codePoint >> 18));
+        dest.put(pos++, (byte)(0x80 | codePoint >> 12 & 0x3F));
+        dest.put(pos++, (byte)(0x80 | codePoint >> 6 & 0x3F));
+        dest.put(pos++, (byte)(0x80 | codePoint & 0x3F));
+      }
+      else if(Character.isSurrogate(ch)) {
+        dest.put(pos++, (byte)'?');
+      }
+      else {
+        dest.put(pos++, (byte)(0xE0 | ch >> 12));
+        dest.put(pos++, (byte)(0x80 | ch >> 6 & 0x3F));
+        dest.put(pos++, (byte)(0x80 | ch & 0x3F));
+      }
+    }
+
+    dest.position(pos);
+  }
+
+  /**
+   * Returns true if a high surrogate at the index is followed by a low one.
+   */
+  private static boolean isSurrogatePair(char[] chars, int index,
+      int length) {
+    // @formatter:off
+    return Character.isHighSurrogate(chars[index])
+        && index + 1 < length
+        && Character.isLowSurrogate(chars[index + 1]);
+    // @formatter:on
+  }
+
+  /**
+   * Grow the uppercase scratch array, if needed, to hold at least the given
+   * number of chars.
+   */
+  private void ensureUpper(int length) {
+    if(upper.length < length) {
+      upper = Arrays.copyOf(upper, grownLength(upper.length, length));
+    }
+  }
+
+  /**
+   * Grow the row width scratch array, if needed.
+   */
+  private void ensureRowWidths(int length) {
+    if(rowWidths.length < length) {
+      rowWidths = new int[grownLength(rowWidths.length, length)];
+    }
+  }
+
+  /**
+   * Grow the tower scratch array, if needed.
+   */
+  private void ensureTower(int length) {
+    if(tower.length < length) {
+      tower = new char[grownLength(tower.length, length)];
+    }
+  }
+
+  /**
+   * Returns the new length of a scratch array: at least double, so that a run
+   * of slowly growing names does not grow the array every time.
+   */
+  private static int grownLength(int current, int needed) {
+    return (int)Math.min(Integer.MAX_VALUE - 8,
+        Math.max((long)current * 2, needed));
+  }
+}
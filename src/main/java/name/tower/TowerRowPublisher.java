@@ -0,0 +1,209 @@
+package name.tower;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This Publisher hands out the rows of a name tower to each subscriber as the
+ * subscriber asks for them. A row is only built when there is demand for it,
+ * the same way {@link NameTower#row(String, int)} builds it, so a subscriber
+ * that forwards rows over a slow link never has more than it asked for.
+ *
+ * Every subscriber gets every row from the first. The rows follow the rules of
+ * the Reactive Streams specification, which java.util.concurrent.Flow is a
+ * copy of: no more rows are sent than have been requested, a request for less
+ * than one row ends the subscription with an IllegalArgumentException, and
+ * nothing is sent once the subscription is cancelled or complete.
+ *
+ * The rows are sent by whichever thread the executor picks. With the default,
+ * Runnable::run, that is the thread that calls request(). Each subscription
+ * counts the requests that arrive while rows are being sent, so a subscriber
+ * that calls request() from onNext() gets its next row from the same loop
+ * rather than from a nested call, and the stack does not grow with the
+ * number of rows. An executor that rejects the work ends the subscription
+ * with onError().
+ *
+ * @author Promineo
+ *
+ */
+class TowerRowPublisher implements Flow.Publisher<String> {
+  private final NameTower nameTower;
+  private final String upper;
+  private final RowBoundaries boundaries;
+  private final int maxWidth;
+  private final Executor executor;
+
+  /**
+   * Create a Publisher for the rows of a tower.
+   *
+   * @param nameTower The NameTower that builds the rows.
+   * @param upper The uppercased name from which to generate the tower.
+   * @param boundaries The row boundaries for the uppercased name.
+   * @param maxWidth The width of the widest row.
+   * @param executor Where the rows are sent from.
+   */
+  TowerRowPublisher(NameTower nameTower, String upper,
+      RowBoundaries boundaries, int maxWidth, Executor executor) {
+    this.nameTower = nameTower;
+    this.upper = upper;
+    this.boundaries = boundaries;
+    this.maxWidth = maxWidth;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null!");
+
+    RowSubscription subscription = new RowSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+
+    /* A tower with no rows is complete without being asked. */
+    subscription.signal();
+  }
+
+  /**
+   * The subscription of one subscriber. Every signal to the subscriber is made
+   * by drain(), and pending makes sure only one drain() runs at a time.
+   */
+  private final class RowSubscription implements Flow.Subscription {
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Flow.Subscriber<? super String> subscriber;
+    private volatile boolean cancelled;
+    private volatile IllegalArgumentException badRequest;
+    private int rowNum = 1;
+
+    /**
+     * Create a subscription at the first row.
+     *
+     * @param subscriber The subscriber.
+     */
+    RowSubscription(Flow.Subscriber<? super String> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if(n < 1) {
+        badRequest = new IllegalArgumentException(
+            "Request must be at least one but was " + n);
+        cancelled = true;
+      }
+      else {
+        /* The demand stops at Long.MAX_VALUE, which means no limit. */
+        demand.accumulateAndGet(n, (current, more) -> {
+          long sum = current + more;
+          return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+      }
+
+      signal();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      signal();
+    }
+
+    /**
+     * Run drain() unless it is already running, in which case it goes round
+     * again before it stops. If the executor will not take drain(), the
+     * subscription ends here and the subscriber gets the
+     * RejectedExecutionException, the way SubmissionPublisher does it.
+     */
+    void signal() {
+      if(pending.getAndIncrement() == 0) {
+        try {
+          executor.execute(this::drain);
+        }
+        catch(RejectedExecutionException e) {
+          reject(e);
+        }
+      }
+    }
+
+    /**
+     * End the subscription because drain() could not be run. No drain() is
+     * running, since pending was zero, so this is the only signal in flight.
+     * As with every other end, pending is left above zero so drain() is never
+     * run again.
+     *
+     * @param e Why the executor turned drain() down.
+     */
+    private void reject(RejectedExecutionException e) {
+      Flow.Subscriber<? super String> current = subscriber;
+      boolean wasCancelled = cancelled;
+      cancelled = true;
+      subscriber = null;
+      demand.set(0);
+
+      /* A subscriber that cancelled is owed nothing but a bad request. */
+      if(current != null && badRequest != null) {
+        current.onError(badRequest);
+      }
+      else if(current != null && !wasCancelled) {
+        current.onError(e);
+      }
+    }
+
+    /**
+     * Send as many rows as have been asked for, then complete if there are no
+     * rows left. Once the subscription has ended, pending is never brought
+     * back down to zero, so drain() never runs again.
+     */
+    private void drain() {
+      int missed = 1;
+
+      do {
+        Flow.Subscriber<? super String> current = subscriber;
+
+        if(cancelled) {
+          subscriber = null;
+
+          if(badRequest != null && current != null) {
+            current.onError(badRequest);
+          }
+
+          return;
+        }
+
+        long requested = demand.get();
+        long sent = 0;
+
+        try {
+          while(sent < requested && rowNum <= boundaries.rowCount()
+              && !cancelled) {
+            current.onNext(
+                nameTower.row(upper, boundaries, maxWidth, rowNum++));
+            sent++;
+          }
+        }
+        catch(RuntimeException e) {
+          /* A subscriber that throws has broken the rules; stop sending. */
+          cancelled = true;
+          subscriber = null;
+          throw e;
+        }
+
+        if(rowNum > boundaries.rowCount() && !cancelled) {
+          cancelled = true;
+          subscriber = null;
+          current.onComplete();
+          return;
+        }
+
+        if(requested != Long.MAX_VALUE) {
+          demand.addAndGet(-sent);
+        }
+
+        missed = pending.addAndGet(-missed);
+      } while(missed != 0);
+    }
+  }
+}
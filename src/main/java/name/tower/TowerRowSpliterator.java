@@ -0,0 +1,91 @@
+package name.tower;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This Spliterator supplies the rows of a name tower one at a time. A row is
+ * only built when it is asked for, the same way
+ * {@link NameTower#row(String, int)} builds it. Since every row can be built
+ * without building the rows before it, the range of rows can be split in half
+ * as many times as needed. This lets a parallel Stream give each thread an
+ * even share of the rows.
+ * 
+ * @author Promineo
+ *
+ */
+class TowerRowSpliterator implements Spliterator<String> {
+  private final NameTower nameTower;
+  private final String upper;
+  private final RowBoundaries boundaries;
+  private final int maxWidth;
+  private int rowNum;
+  private final int endRow;
+
+  /**
+   * Create a Spliterator for a range of rows.
+   * 
+   * @param nameTower The NameTower that builds the rows.
+   * @param upper The uppercased name from which to generate the tower.
+   * @param boundaries The row boundaries for the uppercased name.
+   * @param maxWidth The width of the widest row.
+   * @param fromRow The 1-based number of the first row (inclusive).
+   * @param toRow The 1-based number of the last row (exclusive).
+   */
+  TowerRowSpliterator(NameTower nameTower, String upper,
+      RowBoundaries boundaries, int maxWidth, int fromRow, int toRow) {
+    this.nameTower = nameTower;
+    this.upper = upper;
+    this.boundaries = boundaries;
+    this.maxWidth = maxWidth;
+    this.rowNum = fromRow;
+    this.endRow = toRow;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super String> action) {
+    if(rowNum >= endRow) {
+      return false;
+    }
+
+    action.accept(nameTower.row(upper, boundaries, maxWidth, rowNum++));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super String> action) {
+    while(rowNum < endRow) {
+      action.accept(nameTower.row(upper, boundaries, maxWidth, rowNum++));
+    }
+  }
+
+  /**
+   * Split off the first half of the remaining rows. Rows near the bottom of the
+   * tower are longer than rows near the top, but the difference is small
+   * enough that splitting by row count keeps the work well balanced.
+   */
+  @Override
+  public Spliterator<String> trySplit() {
+    int midRow = (rowNum + endRow) >>> 1;
+
+    if(midRow <= rowNum) {
+      return null;
+    }
+
+    Spliterator<String> prefix = new TowerRowSpliterator(nameTower, upper,
+        boundaries, maxWidth, rowNum, midRow);
+    rowNum = midRow;
+
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return endRow - rowNum;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+  }
+}
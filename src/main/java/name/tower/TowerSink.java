@@ -0,0 +1,205 @@
+package name.tower;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Objects;
+
+/**
+ * This class writes name towers to a channel (a FileChannel, a SocketChannel,
+ * etc.) as UTF-8, each tower followed by a linefeed. The towers are rendered
+ * by a {@link TowerRenderer} straight into direct ByteBuffers, so no String is
+ * made for a tower and its bytes are not copied again on the way out.
+ *
+ * The sink holds a fixed set of buffers. Towers are packed into the first
+ * buffer until the next one does not fit, then into the second, and so on.
+ * When every buffer is full, all of them are handed to the channel in one
+ * gathering write, GatheringByteChannel.write(ByteBuffer[]), which the
+ * operating system turns into a single vectored write. A tower that is bigger
+ * than a whole buffer is rendered into a spare buffer that grows to fit it and
+ * is written on its own. Each name is uppercased and its tower measured once,
+ * before a buffer is chosen, and the tower is then encoded once, straight into
+ * the buffer it goes in.
+ *
+ * Towers are only sure to have reached the channel after {@link #flush()} or
+ * {@link #close()}. Closing the sink closes the channel. The channel should
+ * be in blocking mode. A sink is not thread safe.
+ *
+ * @author Promineo
+ *
+ */
+public class TowerSink implements Flushable, Closeable {
+  /** The default size of each buffer, in bytes. */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  /** The default number of buffers handed to each gathering write. */
+  public static final int DEFAULT_BUFFER_COUNT = 16;
+
+  private static final byte LINEFEED = '\n';
+
+  private final GatheringByteChannel channel;
+  private final TowerRenderer renderer;
+  private final ByteBuffer[] buffers;
+  private ByteBuffer oversize = ByteBuffer.allocate(0);
+  private int current;
+
+  /**
+   * Create a sink with the default buffers that renders towers the way
+   * {@link NameTower#NameTower()} does.
+   *
+   * @param channel The channel to which the towers are written.
+   */
+  public TowerSink(GatheringByteChannel channel) {
+    this(channel, new TowerRenderer(), DEFAULT_BUFFER_SIZE,
+        DEFAULT_BUFFER_COUNT);
+  }
+
+  /**
+   * Create a sink.
+   *
+   * @param channel The channel to which the towers are written.
+   * @param renderer The renderer used for every tower. It must not be used
+   *        anywhere else while the sink is in use.
+   * @param bufferSize The size of each buffer, in bytes.
+   * @param bufferCount The number of buffers.
+   * @throws IllegalArgumentException Thrown if the size or count is less than
+   *         one.
+   */
+  public TowerSink(GatheringByteChannel channel, TowerRenderer renderer,
+      int bufferSize, int bufferCount) {
+    this.channel = Objects.requireNonNull(channel, "Channel must not be null!");
+    this.renderer =
+        Objects.requireNonNull(renderer, "Renderer must not be null!");
+
+    if(bufferSize < 1 || bufferCount < 1) {
+      throw new IllegalArgumentException("Buffer size and count must be at "
+          + "least one but were " + bufferSize + " and " + bufferCount);
+    }
+
+    this.buffers = new ByteBuffer[bufferCount];
+
+    for(int index = 0; index < bufferCount; index++) {
+      buffers[index] = ByteBuffer.allocateDirect(bufferSize);
+    }
+  }
+
+  /**
+   * This method renders the tower for the given name, followed by a linefeed,
+   * into the buffers. The buffers are written to the channel first if the
+   * tower does not fit in the space left.
+   *
+   * @param name The name from which to generate the tower.
+   * @throws IOException Thrown if the channel throws it.
+   * @throws IllegalArgumentException Thrown if the tower is too big to fit in
+   *         a buffer. Nothing is written or flushed in that case.
+   */
+  public void write(CharSequence name) throws IOException {
+    Objects.requireNonNull(name, "Name must not be null!");
+
+    int needed = bytesNeeded(name);
+    ByteBuffer buffer = buffers[current];
+
+    if(needed > buffer.capacity()) {
+      flush();
+      writeOversize(needed);
+      return;
+    }
+
+    if(needed > buffer.remaining()) {
+      if(current + 1 < buffers.length) {
+        current++;
+      }
+      else {
+        flush();
+      }
+
+      buffer = buffers[current];
+    }
+
+    renderer.writePrepared(buffer);
+    buffer.put(LINEFEED);
+  }
+
+  /**
+   * Get the renderer ready to write the tower, and return the number of bytes
+   * in the tower and its linefeed.
+   *
+   * @throws IllegalArgumentException Thrown if they are too many for a
+   *         buffer.
+   */
+  private int bytesNeeded(CharSequence name) {
+    long needed = Math.addExact(renderer.prepareBytes(name), 1);
+
+    if(needed > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("The tower for a name of "
+          + name.length() + " chars needs " + needed
+          + " bytes, too many to fit in a buffer!");
+    }
+
+    return (int)needed;
+  }
+
+  /**
+   * Write the prepared tower, which is bigger than a buffer, through the spare
+   * buffer. The other buffers have been flushed when this is called.
+   */
+  private void writeOversize(int needed) throws IOException {
+    if(oversize.capacity() < needed) {
+      oversize = ByteBuffer.allocateDirect(needed);
+    }
+
+    oversize.clear();
+    renderer.writePrepared(oversize);
+    oversize.put(LINEFEED);
+    oversize.flip();
+
+    while(oversize.hasRemaining()) {
+      channel.write(oversize);
+    }
+  }
+
+  /**
+   * This method writes every filled buffer to the channel in gathering
+   * writes, until all of their bytes have been written.
+   *
+   * @throws IOException Thrown if the channel throws it.
+   */
+  @Override
+  public void flush() throws IOException {
+    int used = current + 1;
+    long remaining = 0;
+
+    for(int index = 0; index < used; index++) {
+      buffers[index].flip();
+      remaining += buffers[index].remaining();
+    }
+
+    /* A channel may write less than it is given, so go round until done. */
+    while(remaining > 0) {
+      remaining -= channel.write(buffers, 0, used);
+    }
+
+    for(int index = 0; index < used; index++) {
+      buffers[index].clear();
+    }
+
+    current = 0;
+  }
+
+  /**
+   * This method flushes the buffers and closes the channel.
+   *
+   * @throws IOException Thrown if the channel throws it.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    }
+    finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package name.tower;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class converts a name to uppercase before it is laid out in a tower.
+ * The whole name is uppercased once, up front, so the rows are cut from the
+ * characters that actually appear in the tower. This matters for the few
+ * characters that become more than one character when uppercased. The German
+ * sharp s becomes "SS" and the "fi" ligature becomes "FI", so a name holding
+ * one of them has more tower characters than name characters.
+ *
+ * Most names are made only of Latin-1 characters, which are uppercased with a
+ * lookup table straight into a Latin-1 String. Any other character is
+ * uppercased with Character.toUpperCase(), which gives the same answer as
+ * String.toUpperCase() except for the characters that expand. Those are found
+ * by trying every character the first time a character outside Latin-1 is
+ * seen, and they are uppercased with String.toUpperCase() instead. That is the
+ * slow path, and it is only taken for the characters that need it.
+ *
+ * Turkish, Azerbaijani and Lithuanian have extra uppercasing rules (a dotted
+ * capital I, and dropping a combining dot above after an i). For those locales
+ * the whole name is simply passed to String.toUpperCase().
+ *
+ * @author Promineo
+ *
+ */
+final class UpperCase {
+  /** Returned for a character whose uppercase form is more than one char. */
+  static final int EXPANDS = -1;
+
+  private static final int[] LATIN1 = new int[256];
+
+  static {
+    for(char ch = 0; ch < LATIN1.length; ch++) {
+      String upper = String.valueOf(ch).toUpperCase(Locale.ROOT);
+      LATIN1[ch] = upper.length() == 1 ? upper.charAt(0) : EXPANDS;
+    }
+  }
+
+  private UpperCase() {}
+
+  /**
+   * The characters past Latin-1 that expand when uppercased. They are held in
+   * their own class so the search only runs if such a character is seen.
+   */
+  private static final class Expanding {
+    private static final BitSet CHARS = new BitSet(Character.MAX_VALUE + 1);
+
+    static {
+      for(int ch = LATIN1.length; ch <= Character.MAX_VALUE; ch++) {
+        /* Only lowercase and titlecase letters expand, so skip the rest. */
+        if((Character.isLowerCase(ch) || Character.isTitleCase(ch))
+            && String.valueOf((char)ch).toUpperCase(Locale.ROOT).length() > 1) {
+          CHARS.set(ch);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns true if the locale uppercases every character on its own, the
+   * same way the root locale does.
+   *
+   * @param locale The locale used for uppercasing.
+   * @return true unless the locale is Turkish, Azerbaijani or Lithuanian.
+   */
+  static boolean isTableUsable(Locale locale) {
+    String language = locale.getLanguage();
+
+    // @formatter:off
+    return !language.equals("tr")
+        && !language.equals("az")
+        && !language.equals("lt");
+    // @formatter:on
+  }
+
+  /**
+   * Returns the uppercase form of a code point, for a locale where
+   * {@link #isTableUsable(Locale)} is true.
+   *
+   * @param codePoint The code point.
+   * @return The uppercase code point, or {@link #EXPANDS} if the uppercase form
+   *         is more than one code point.
+   */
+  static int toUpperCase(int codePoint) {
+    if(codePoint < LATIN1.length) {
+      return LATIN1[codePoint];
+    }
+
+    if(codePoint <= Character.MAX_VALUE && Expanding.CHARS.get(codePoint)) {
+      return EXPANDS;
+    }
+
+    return Character.toUpperCase(codePoint);
+  }
+
+  /**
+   * Returns the uppercase form of a code point that expands. This is the slow
+   * path.
+   *
+   * @param codePoint The code point.
+   * @return The uppercase form.
+   */
+  static String expand(int codePoint) {
+    return Character.toString(codePoint).toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns true if the code point is a combining mark. Uppercasing never
+   * looks past the base character before a run of combining marks, so a name
+   * can be cut in two before any character that is not one (or the second half
+   * of a surrogate pair) and the two halves uppercased on their own.
+   *
+   * @param codePoint The code point.
+   * @return true if the code point is a combining mark.
+   */
+  static boolean isCombining(int codePoint) {
+    int type = Character.getType(codePoint);
+
+    // @formatter:off
+    return type == Character.NON_SPACING_MARK
+        || type == Character.ENCLOSING_MARK
+        || type == Character.COMBINING_SPACING_MARK;
+    // @formatter:on
+  }
+
+  /**
+   * Convert the name to uppercase. The result is the same as
+   * name.toUpperCase(locale).
+   *
+   * While the name and its uppercase form are both Latin-1, each character is
+   * looked up in the table and written into a byte array, which becomes the
+   * String without any conversion. At the first character that is not, the
+   * rest of the name is uppercased one code point at a time.
+   *
+   * @param name The name.
+   * @param locale The locale used for uppercasing.
+   * @return The uppercased name.
+   */
+  static String toUpperCase(String name, Locale locale) {
+    if(!isTableUsable(locale)) {
+      return name.toUpperCase(locale);
+    }
+
+    byte[] upper = new byte[name.length()];
+
+    for(int index = 0; index < upper.length; index++) {
+      char ch = name.charAt(index);
+      int up = ch < LATIN1.length ? LATIN1[ch] : EXPANDS;
+
+      if(up < 0 || up >= LATIN1.length) {
+        return toUpperCaseSlowly(name, index, upper);
+      }
+
+      upper[index] = (byte)up;
+    }
+
+    return new String(upper, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Finish uppercasing a name one code point at a time once a character that
+   * is not Latin-1, or does not stay Latin-1, has been found.
+   *
+   * @param name The name.
+   * @param from Where in the name to carry on from.
+   * @param upper The name uppercased up to the given index.
+   * @return The uppercased name.
+   */
+  private static String toUpperCaseSlowly(String name, int from, byte[] upper) {
+    StringBuilder result = new StringBuilder(name.length() + 16);
+    result.append(new String(upper, 0, from, StandardCharsets.ISO_8859_1));
+
+    for(int index = from; index < name.length();) {
+      int codePoint = name.codePointAt(index);
+      int up = toUpperCase(codePoint);
+
+      if(up == EXPANDS) {
+        result.append(expand(codePoint));
+      }
+      else {
+        result.appendCodePoint(up);
+      }
+
+      index += Character.charCount(codePoint);
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Returns the number of code points in the uppercase form of the name,
+   * without building it.
+   *
+   * @param name The name.
+   * @param locale The locale used for uppercasing.
+   * @return The number of code points.
+   * @throws ArithmeticException Thrown if the count does not fit in an int.
+   */
+  static int codePointCount(CharSequence name, Locale locale) {
+    Cursor cursor = new Cursor(name, locale);
+    int count = 0;
+
+    while(cursor.hasNext()) {
+      cursor.nextInt();
+      count = Math.addExact(count, 1);
+    }
+
+    return count;
+  }
+
+  /**
+   * This class reads the uppercase form of a name one code point at a time,
+   * from the start of the name to the end. Only the current character is
+   * uppercased, so the uppercased name is never held in memory. (For the
+   * locales where {@link #isTableUsable(Locale)} is false it is built up front,
+   * since the uppercase form of a character depends on its neighbors.)
+   */
+  static final class Cursor implements PrimitiveIterator.OfInt {
+    private final CharSequence name;
+    private final boolean tableUsable;
+    private int index;
+    private String expansion = "";
+    private int expansionIndex;
+
+    /**
+     * Create a cursor at the start of the name.
+     *
+     * @param name The name.
+     * @param locale The locale used for uppercasing.
+     */
+    Cursor(CharSequence name, Locale locale) {
+      this.tableUsable = isTableUsable(locale);
+      this.name = tableUsable ? name : name.toString().toUpperCase(locale);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return expansionIndex < expansion.length() || index < name.length();
+    }
+
+    /**
+     * Returns the next uppercase code point.
+     *
+     * @return The code point.
+     * @throws NoSuchElementException Thrown if there are no more code points.
+     */
+    @Override
+    public int nextInt() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      if(expansionIndex < expansion.length()) {
+        int codePoint = expansion.codePointAt(expansionIndex);
+        expansionIndex += Character.charCount(codePoint);
+        return codePoint;
+      }
+
+      int codePoint = Character.codePointAt(name, index);
+      index += Character.charCount(codePoint);
+
+      if(!tableUsable) {
+        return codePoint;
+      }
+
+      int up = toUpperCase(codePoint);
+
+      if(up != EXPANDS) {
+        return up;
+      }
+
+      expansion = expand(codePoint);
+      expansionIndex = 0;
+
+      return nextInt();
+    }
+  }
+}
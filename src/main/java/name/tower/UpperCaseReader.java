@@ -0,0 +1,114 @@
+package name.tower;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * This class reads the uppercase form of a name from a Reader one code point
+ * at a time, for names too big to hold in memory. The name is read a block at
+ * a time and each block is uppercased with {@link UpperCase}, so the result is
+ * the same as uppercasing the whole name at once.
+ *
+ * That only holds if no block boundary falls where uppercasing looks at the
+ * characters around it. In Lithuanian a combining dot above is dropped after
+ * an i, and a surrogate pair must stay together, so a block is always cut just
+ * before a character that is neither a combining mark nor the second half of a
+ * surrogate pair.
+ *
+ * @author Promineo
+ *
+ */
+final class UpperCaseReader {
+  /** The number of chars read and uppercased at a time. */
+  static final int BLOCK_SIZE = 1 << 13;
+
+  private final Reader in;
+  private final Locale locale;
+  private final char[] block = new char[BLOCK_SIZE];
+  private int held;
+  private boolean ended;
+  private String upper = "";
+  private int index;
+
+  /**
+   * Create a reader at the start of the name.
+   *
+   * @param in The name.
+   * @param locale The locale used for uppercasing.
+   */
+  UpperCaseReader(Reader in, Locale locale) {
+    this.in = in;
+    this.locale = locale;
+  }
+
+  /**
+   * Returns the next uppercase code point.
+   *
+   * @return The code point, or -1 at the end of the name.
+   * @throws IOException Thrown if the Reader throws it.
+   */
+  int read() throws IOException {
+    while(index >= upper.length()) {
+      if(!fill()) {
+        return -1;
+      }
+    }
+
+    int codePoint = upper.codePointAt(index);
+    index += Character.charCount(codePoint);
+
+    return codePoint;
+  }
+
+  /**
+   * Read the next block and uppercase it. The chars after the last safe cut
+   * are held back for the next block.
+   *
+   * @return false if the whole name has been read.
+   */
+  private boolean fill() throws IOException {
+    if(ended && held == 0) {
+      return false;
+    }
+
+    int length = held;
+
+    while(length < block.length && !ended) {
+      int count = in.read(block, length, block.length - length);
+
+      if(count < 0) {
+        ended = true;
+      }
+      else {
+        length += count;
+      }
+    }
+
+    int cut = ended ? length : safeCut(length);
+    upper = UpperCase.toUpperCase(new String(block, 0, cut), locale);
+    index = 0;
+    held = length - cut;
+    System.arraycopy(block, cut, block, 0, held);
+
+    return true;
+  }
+
+  /**
+   * Returns the last place in the block, other than its start, where it can
+   * be cut. The block is full, so a block made only of combining marks is cut
+   * at its end (keeping a surrogate pair whole), since there is nowhere
+   * better.
+   */
+  private int safeCut(int length) {
+    for(int index = length - 1; index > 0; index--) {
+      if(!Character.isLowSurrogate(block[index])
+          && !UpperCase.isCombining(
+              Character.codePointAt(block, index, length))) {
+        return index;
+      }
+    }
+
+    return Character.isHighSurrogate(block[length - 1]) ? length - 1 : length;
+  }
+}
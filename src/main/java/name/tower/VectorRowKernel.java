@@ -0,0 +1,94 @@
+package name.tower;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This kernel uses the Vector API to handle a whole SIMD register of
+ * characters at once (64 on a CPU with AVX-512).
+ *
+ * For the characters a name tower can hold, uppercasing is a subtraction of
+ * 32 from 'a' through 'z' and from the Latin-1 lowercase letters 0xE0 through
+ * 0xFE, except the division sign at 0xF7. So a lane mask picks out the
+ * lowercase letters, the subtraction is done under the mask, and spaces are
+ * swapped for asterisks with a blend.
+ *
+ * To put a space after each character, the bytes are widened to shorts (each
+ * half of the register in turn) and a space is or-ed into the high byte. Read
+ * back as bytes in little-endian order, each short is the character followed
+ * by the space. The widening sign-extends, so the high byte is masked off
+ * first. (Java 17 has no zero-extending conversion that works here.)
+ *
+ * The characters left over at the end of a row, fewer than a register's
+ * worth, go through the {@link Latin1Case} table one at a time.
+ *
+ * This class uses the jdk.incubator.vector module. It is only loaded by
+ * {@link RowKernel#best()} after checking that the module is present.
+ *
+ * @author Promineo
+ *
+ */
+final class VectorRowKernel extends RowKernel {
+  private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Short> SHORTS =
+      VectorSpecies.of(short.class, BYTES.vectorShape());
+
+  /** A space in the high byte of a short, after the character in the low. */
+  private static final short SEPARATOR = (short)(' ' << 8);
+
+  @Override
+  boolean isAccelerated() {
+    return BYTES.length() >= 16;
+  }
+
+  @Override
+  void interleave(byte[] name, int from, int count, byte[] dest, int pos) {
+    int lanes = BYTES.length();
+    int bound = BYTES.loopBound(count);
+    int index = 0;
+
+    for(; index < bound; index += lanes) {
+      ByteVector chars = ByteVector.fromArray(BYTES, name, from + index);
+      chars = chars.lanewise(VectorOperators.SUB, (byte)32, isLowerCase(chars));
+      chars = chars.blend((byte)'*', chars.eq((byte)' '));
+
+      for(int part = 0; part < 2; part++) {
+        // @formatter:off
+        ShortVector pairs = ((ShortVector)chars
+            .convertShape(VectorOperators.B2S, SHORTS, part))
+            .and((short)0xFF)
+            .or(SEPARATOR);
+        // @formatter:on
+
+        pairs.reinterpretAsBytes()
+            .intoArray(dest, pos + 2 * index + part * lanes);
+      }
+    }
+
+    for(; index < count; index++) {
+      dest[pos + 2 * index] =
+          (byte)Latin1Case.towerChar(name[from + index] & 0xFF);
+      dest[pos + 2 * index + 1] = ' ';
+    }
+  }
+
+  /**
+   * Returns a mask of the lanes that hold a lowercase letter.
+   */
+  private static VectorMask<Byte> isLowerCase(ByteVector chars) {
+    // @formatter:off
+    VectorMask<Byte> ascii = chars
+        .compare(VectorOperators.UNSIGNED_GE, (byte)'a')
+        .and(chars.compare(VectorOperators.UNSIGNED_LE, (byte)'z'));
+    VectorMask<Byte> latin1 = chars
+        .compare(VectorOperators.UNSIGNED_GE, (byte)0xE0)
+        .and(chars.compare(VectorOperators.NE, (byte)0xF7))
+        .and(chars.compare(VectorOperators.NE, (byte)0xFF));
+    // @formatter:on
+
+    return ascii.or(latin1);
+  }
+}
@@ -0,0 +1,133 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class BatchTowerGeneratorTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that each tower in the batch matches the tower for its name and that
+   * the towers come back in the same order as the names.
+   */
+  @Test
+  void testThatBatchTowersMatchNamesInOrder() {
+    // Given: names of many different lengths and a pool of four threads
+    List<String> names = IntStream.range(1, 2_000)
+        .mapToObj(length -> "First Middle Last ".repeat(10).substring(0,
+            length % 150 + 1))
+        .toList();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      BatchTowerGenerator generator = new BatchTowerGenerator(executor, 4);
+
+      // When: the towers are built as a batch
+      List<String> towers = generator.generateTowers(names);
+
+      // Then: each tower matches the tower for its name
+      assertThat(towers).containsExactlyElementsOf(
+          names.stream().map(nameTower::generateTower).toList());
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test that names that cannot be rendered in a single pass are still
+   * rendered correctly.
+   */
+  @Test
+  void testThatBatchHandlesLengthChangingNames() {
+    // Given: names that change length when uppercased
+    List<String> names = List.of("Stra\u00DFe", "First Middle Last",
+        "\uD801\uDC28\uD801\uDC29");
+
+    // When: the towers are built as a batch from a Stream
+    List<String> towers =
+        new BatchTowerGenerator().generateTowers(names.stream());
+
+    // Then: each tower matches the tower for its name
+    assertThat(towers).containsExactlyElementsOf(
+        names.stream().map(nameTower::generateTower).toList());
+  }
+
+  /**
+   * Test that the batch follows the locale and centering of the NameTower it
+   * was given.
+   */
+  @Test
+  void testThatNameTowerLocaleAndCenteringAreUsed() {
+    // Given: names that uppercase or center differently
+    List<String> names = List.of("istanbul", "\u4E2D\u6587 name",
+        "First Middle Last", "i\u4E2D".repeat(600));
+
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // When: the towers are built by a generator for a configured NameTower
+      List<String> towers =
+          new BatchTowerGenerator(configured).generateTowers(names);
+
+      // Then: each tower matches the configured NameTower
+      assertThat(towers).containsExactlyElementsOf(
+          names.stream().map(configured::generateTower).toList());
+    }
+  }
+
+  /**
+   * Test that an empty name in a batch gets an empty tower and leaves the
+   * other towers in place.
+   */
+  @Test
+  void testThatEmptyNameInBatchGivesEmptyTower() {
+    // Given: a batch with empty names around a real one
+    List<String> names = List.of("", "First", "");
+
+    // When: the towers are built
+    List<String> towers = new BatchTowerGenerator().generateTowers(names);
+
+    // Then: the empty names have empty towers
+    assertThat(towers).containsExactly("", nameTower.generateTower("First"),
+        "");
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatNullNameInBatchThrowsException() {
+    // Given: a batch with a null name
+    List<String> names = Arrays.asList("First", null, "Last");
+
+    // When: the towers are built
+    // Then: an exception is thrown
+    assertThatThrownBy(
+        () -> new BatchTowerGenerator().generateTowers(names))
+            .isInstanceOf(NullPointerException.class);
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatEmptyBatchReturnsEmptyList() {
+    // Given: no names
+    Stream<String> names = Stream.empty();
+
+    // When: the towers are built
+    List<String> towers = new BatchTowerGenerator().generateTowers(names);
+
+    // Then: there are no towers
+    assertThat(towers).isEmpty();
+  }
+}
@@ -0,0 +1,126 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CachingNameTowerTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the towers in the cache follow the locale and centering of the
+   * NameTower the cache was given.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"istanbul", "\u4E2D\u6587 name"})
+  void testThatNameTowerLocaleAndCenteringAreUsed(String name) {
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // Given: a cache for a configured NameTower
+      CachingNameTower cache = new CachingNameTower(configured, 1 << 20);
+
+      // When: the tower is asked for twice
+      String miss = cache.generateTower(name);
+      String hit = cache.generateTower(name);
+
+      // Then: both match the configured NameTower
+      assertThat(miss).isEqualTo(configured.generateTower(name));
+      assertThat(hit).isSameAs(miss);
+    }
+  }
+
+  /**
+   * Test that the first request for a name is a miss, the next one is a hit
+   * and both return the correct tower.
+   */
+  @Test
+  void testThatRepeatedNameIsServedFromCache() {
+    // Given: an empty cache
+    CachingNameTower cache = new CachingNameTower(1 << 20);
+    String name = "First Middle Last";
+
+    // When: the same tower is asked for twice
+    String first = cache.generateTower(name);
+    String second = cache.generateTower(name);
+
+    // Then: both are correct and the second came from the cache
+    assertThat(first).isEqualTo(nameTower.generateTower(name));
+    assertThat(second).isSameAs(first);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  /**
+   * Test that a flood of names that are each asked for once does not push a
+   * popular name out of the cache. Twenty one-off names are asked for between
+   * each request for the popular name, which is more than the cache can hold,
+   * so a plain least recently used cache would lose the popular name every
+   * time.
+   */
+  @Test
+  void testThatOneOffNamesDoNotEvictPopularName() {
+    // Given: a one stripe cache with room for only a few towers
+    CachingNameTower cache = new CachingNameTower(2_000, 1);
+    String popular = "First Middle Last";
+    int popularMisses = 0;
+
+    // When: the popular name is asked for between floods of one-off names
+    for(int round = 0; round < 500; round++) {
+      long missesBefore = cache.missCount();
+      cache.generateTower(popular);
+
+      if(round >= 10 && cache.missCount() > missesBefore) {
+        popularMisses++;
+      }
+
+      for(int count = 0; count < 20; count++) {
+        cache.generateTower("One Off " + round + " " + count);
+      }
+    }
+
+    // Then: once it is established the popular name is always cached
+    assertThat(popularMisses).isZero();
+  }
+
+  /**
+   * Test that the cache never holds more than its byte budget and that towers
+   * are evicted to stay within it.
+   */
+  @Test
+  void testThatCacheStaysWithinByteBudget() {
+    // Given: a small cache
+    CachingNameTower cache = new CachingNameTower(4_000, 1);
+
+    // When: many names are each asked for twice so they are let in
+    for(int count = 0; count < 200; count++) {
+      String name = "Name Number " + count;
+      cache.generateTower(name);
+      cache.generateTower(name);
+      cache.generateTower(name);
+    }
+
+    // Then: the cache is within its budget and has evicted towers
+    assertThat(cache.weightedSize()).isLessThanOrEqualTo(4_000);
+    assertThat(cache.evictionCount()).isPositive();
+    assertThat(cache.size()).isPositive();
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatNonPositiveBudgetThrowsException() {
+    // Given: a budget of zero bytes
+    long maxBytes = 0;
+
+    // When: the cache is created
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> new CachingNameTower(maxBytes))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,133 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CoalescingNameTowerTest {
+  private static final int NUM_THREADS = 300;
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that when hundreds of threads ask for the same name while its tower
+   * is being rendered, the tower is rendered exactly once and every thread
+   * gets it. The renderer blocks on a latch, so the first request stays in
+   * flight until every other thread has parked waiting for it. Nothing else in
+   * those threads blocks, so a parked thread is one that has joined the
+   * rendering.
+   */
+  @Test
+  void testThatConcurrentRequestsRenderOnce() throws Exception {
+    // Given: a renderer that counts renderings and blocks until released
+    AtomicInteger renderings = new AtomicInteger();
+    CountDownLatch rendering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CoalescingNameTower towers = new CoalescingNameTower(name -> {
+      renderings.incrementAndGet();
+      rendering.countDown();
+      awaitQuietly(release);
+      return nameTower.generateTower(name);
+    });
+
+    String name = "First Middle Last";
+    String[] results = new String[NUM_THREADS];
+    List<Thread> threads = new ArrayList<>();
+
+    for(int index = 0; index < NUM_THREADS; index++) {
+      int slot = index;
+      threads.add(
+          new Thread(() -> results[slot] = towers.generateTower(name)));
+    }
+
+    // When: one thread starts the rendering, every other thread asks for the
+    // same tower and parks, and then the rendering is let finish
+    threads.get(0).start();
+    assertThat(rendering.await(10, TimeUnit.SECONDS)).isTrue();
+
+    for(Thread thread : threads.subList(1, NUM_THREADS)) {
+      thread.start();
+    }
+
+    for(Thread thread : threads.subList(1, NUM_THREADS)) {
+      awaitParked(thread);
+    }
+
+    release.countDown();
+
+    for(Thread thread : threads) {
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Then: the tower was rendered once and every thread got it
+    assertThat(renderings).hasValue(1);
+    assertThat(results).containsOnly(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that once a tower has been handed out, the next request renders it
+   * again.
+   */
+  @Test
+  void testThatSequentialRequestsRenderEachTime() {
+    // Given: a renderer that counts renderings
+    AtomicInteger renderings = new AtomicInteger();
+    CoalescingNameTower towers = new CoalescingNameTower(name -> {
+      renderings.incrementAndGet();
+      return nameTower.generateTower(name);
+    });
+
+    // When: the same tower is asked for twice, one after the other
+    towers.generateTower("First Middle Last");
+    towers.generateTower("First Middle Last");
+
+    // Then: the tower was rendered twice
+    assertThat(renderings).hasValue(2);
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatRendererExceptionIsThrown() {
+    // Given: a renderer that fails
+    CoalescingNameTower towers = new CoalescingNameTower(name -> {
+      throw new IllegalStateException("Rendering failed");
+    });
+
+    // When: the tower is built
+    // Then: the renderer's exception is thrown
+    assertThatThrownBy(() -> towers.generateTower("First Middle Last"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  /**
+   * Wait until the thread has parked, or ten seconds have gone by. If it never
+   * parks, the count of renderings shows it.
+   */
+  private static void awaitParked(Thread thread) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+    while(thread.getState() != Thread.State.WAITING
+        && System.nanoTime() < deadline) {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Wait for the latch, keeping the interrupt for the caller.
+   */
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
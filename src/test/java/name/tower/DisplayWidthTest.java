@@ -0,0 +1,65 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DisplayWidthTest {
+
+  /**
+   * Test that every Latin-1 character takes one column, so Latin-1 names are
+   * centered the same way by both kinds of centering.
+   */
+  @Test
+  void testThatLatin1CharactersTakeOneColumn() {
+    for(int ch = 0; ch < 256; ch++) {
+      assertThat(DisplayWidth.of(ch)).isEqualTo(1);
+    }
+  }
+
+  /**
+   * Test that ideographs, kana, Hangul syllables, fullwidth forms and emoji
+   * take two columns.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0x5C71, 0x3042, 0xD55C, 0xFF21, 0x1F600, 0x20000})
+  void testThatWideCharactersTakeTwoColumns(int codePoint) {
+    assertThat(DisplayWidth.of(codePoint)).isEqualTo(2);
+  }
+
+  /**
+   * Test that combining marks, format characters and Hangul medial vowels take
+   * no columns.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0x0301, 0x20DD, 0x200B, 0xFEFF, 0x1160})
+  void testThatCombiningCharactersTakeNoColumns(int codePoint) {
+    assertThat(DisplayWidth.of(codePoint)).isEqualTo(0);
+  }
+
+  /**
+   * Test that the width of text is the sum of the widths of its characters.
+   */
+  @Test
+  void testThatWidthOfTextIsSumOfCharacters() {
+    // Given: a letter, an ideograph, a combining accent and an emoji
+    String text = "a\u5C71\u0301\uD83D\uDE00";
+
+    // When: the width is measured
+    int width = DisplayWidth.of(text);
+
+    // Then: the widths are added up
+    assertThat(width).isEqualTo(5);
+    assertThat(DisplayWidth.isSingleWidth(text)).isFalse();
+    assertThat(DisplayWidth.isSingleWidth("First Middle Last")).isTrue();
+  }
+
+  /**
+   * Test that the two-level table stays compact.
+   */
+  @Test
+  void testThatTableIsCompact() {
+    assertThat(DisplayWidth.tableBytes()).isLessThan(64 * 1024);
+  }
+}
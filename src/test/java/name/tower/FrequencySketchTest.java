@@ -0,0 +1,47 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+  /**
+   * Test that the estimated frequency counts up with each increment and stops
+   * at fifteen.
+   */
+  @Test
+  void testThatFrequencyCountsUpToFifteen() {
+    // Given: an empty sketch
+    FrequencySketch sketch = new FrequencySketch(1_000);
+
+    // When: a key is incremented
+    // Then: its frequency goes up by one each time until it reaches fifteen
+    assertThat(sketch.frequency("name")).isZero();
+
+    for(int count = 1; count <= 20; count++) {
+      sketch.increment("name");
+      assertThat(sketch.frequency("name")).isEqualTo(Math.min(count, 15));
+    }
+  }
+
+  /**
+   * Test that the counts are halved once enough increments have been made.
+   */
+  @Test
+  void testThatCountsAgeAfterSampleSize() {
+    // Given: a small sketch with a popular key
+    FrequencySketch sketch = new FrequencySketch(16);
+
+    for(int count = 0; count < 15; count++) {
+      sketch.increment("popular");
+    }
+
+    // When: enough other keys are incremented to age the counts
+    for(int count = 0; count < 160; count++) {
+      sketch.increment("other " + count);
+    }
+
+    // Then: the popular key has been aged
+    assertThat(sketch.frequency("popular")).isLessThan(15);
+  }
+}
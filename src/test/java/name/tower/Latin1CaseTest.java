@@ -0,0 +1,58 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class Latin1CaseTest {
+
+  /**
+   * Test that the table agrees with String.toUpperCase() for every Latin-1
+   * character it can look up, and that the characters it cannot look up are
+   * the ones without a single Latin-1 uppercase form.
+   */
+  @Test
+  void testThatTableMatchesToUpperCaseForEveryLatin1Character() {
+    for(char ch = 0; ch < 256; ch++) {
+      // Given: a Latin-1 character
+      String upper = String.valueOf(ch).toUpperCase(Locale.ROOT);
+
+      // When: the character is looked up
+      int towerChar = Latin1Case.towerChar(ch);
+
+      // Then: the table gives the uppercase form, an asterisk or nothing
+      if(ch == ' ') {
+        assertThat(towerChar).isEqualTo('*');
+      }
+      else if(upper.length() == 1 && upper.charAt(0) < 256) {
+        assertThat(towerChar).isEqualTo(upper.charAt(0));
+      }
+      else {
+        assertThat(towerChar).isEqualTo(Latin1Case.NONE);
+      }
+    }
+  }
+
+  /**
+   * Test that the characters without a Latin-1 uppercase form, and characters
+   * past Latin-1, cannot be rendered with the table.
+   */
+  @Test
+  void testThatNamesOutsideTableCannotBeRendered() {
+    assertThat(Latin1Case.canRender("J\u00FCrgen M\u00FCller")).isTrue();
+    assertThat(Latin1Case.canRender("Stra\u00DFe")).isFalse();
+    assertThat(Latin1Case.canRender("\u00FFves")).isFalse();
+    assertThat(Latin1Case.canRender("\u0141ukasz")).isFalse();
+  }
+
+  /**
+   * Test that the table is not used for locales that uppercase 'i'
+   * differently.
+   */
+  @Test
+  void testThatTurkishLocaleIsNotUsable() {
+    assertThat(Latin1Case.isUsable(Locale.ROOT)).isTrue();
+    assertThat(Latin1Case.isUsable(Locale.GERMANY)).isTrue();
+    assertThat(Latin1Case.isUsable(new Locale("tr", "TR"))).isFalse();
+  }
+}
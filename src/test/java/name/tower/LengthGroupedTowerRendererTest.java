@@ -0,0 +1,122 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LengthGroupedTowerRendererTest {
+
+  private NameTower nameTower = new NameTower();
+  private LengthGroupedTowerRenderer renderer =
+      new LengthGroupedTowerRenderer();
+
+  /**
+   * Test that every tower in the batch matches the tower for its name, in the
+   * same order as the names, and that the towers are packed end to end.
+   */
+  @Test
+  void testThatBatchTowersMatchNamesInOrder() {
+    // Given: names of mixed lengths in no particular order
+    String source = "First Middle Last ".repeat(5);
+    List<String> names = IntStream.range(0, 500)
+        .mapToObj(index -> source.substring(0, (index * 37) % 60 + 1))
+        .toList();
+
+    // When: the batch is rendered
+    TowerBatch batch = renderer.render(names);
+
+    // Then: each tower matches and the towers are packed end to end
+    assertThat(batch.size()).isEqualTo(names.size());
+
+    for(int index = 0; index < names.size(); index++) {
+      String expected = nameTower.generateTower(names.get(index));
+      assertThat(batch.tower(index)).isEqualTo(expected);
+      assertThat(batch.offset(index + 1) - batch.offset(index))
+          .isEqualTo(expected.length());
+    }
+
+    assertThat(batch.offset(batch.size())).isEqualTo(batch.chars().length);
+  }
+
+  /**
+   * Test that there is one timing entry for each name length, shortest first,
+   * and that the name counts add up.
+   */
+  @Test
+  void testThatBucketStatsCoverEachLength() {
+    // Given: names of three lengths
+    List<String> names = List.of("abc", "Jo", "abcdef", "Al", "xyz", "Ed");
+
+    // When: the batch is rendered
+    TowerBatch batch = renderer.render(names);
+
+    // Then: there is one group per length
+    assertThat(batch.bucketStats())
+        .extracting(TowerBatch.BucketStats::nameLength)
+        .containsExactly(2, 3, 6);
+    assertThat(batch.bucketStats())
+        .extracting(TowerBatch.BucketStats::nameCount)
+        .containsExactly(3, 2, 1);
+  }
+
+  /**
+   * Test that names that change length when uppercased are rendered
+   * correctly.
+   */
+  @Test
+  void testThatLengthChangingNamesAreRendered() {
+    // Given: a name that grows when uppercased
+    List<String> names = List.of("Stra\u00DFe", "Strasse");
+
+    // When: the batch is rendered
+    TowerBatch batch = renderer.render(names);
+
+    // Then: both towers match the Stream pipeline
+    for(int index = 0; index < names.size(); index++) {
+      assertThat(batch.tower(index))
+          .isEqualTo(nameTower.generateTower(names.get(index)));
+    }
+  }
+
+  /**
+   * Test that the towers follow the locale and centering of the NameTower the
+   * renderer was given, including a group where no name can use the layout.
+   */
+  @Test
+  void testThatNameTowerLocaleAndCenteringAreUsed() {
+    // Given: names that uppercase or center differently
+    List<String> names = List.of("istanbul", "\u4E2D\u6587 name",
+        "\u4E2D\u6587", "Jo", "\uD83D\uDE00", "First Middle Last");
+
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // When: the batch is rendered for a configured NameTower
+      TowerBatch batch =
+          new LengthGroupedTowerRenderer(configured).render(names);
+
+      // Then: each tower matches the configured NameTower
+      for(int index = 0; index < names.size(); index++) {
+        assertThat(batch.tower(index))
+            .isEqualTo(configured.generateTower(names.get(index)));
+      }
+    }
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatNullNameInBatchThrowsException() {
+    // Given: a batch with a null name
+    List<String> names = Arrays.asList("First", null);
+
+    // When: the batch is rendered
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> renderer.render(names))
+        .isInstanceOf(NullPointerException.class);
+  }
+}
@@ -2,7 +2,29 @@ package name.tower;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class NameTowerTest {
 
@@ -61,4 +83,505 @@ class NameTowerTest {
     assertThatThrownBy(() -> nameTower.generateTower(name))
         .isInstanceOf(NullPointerException.class);
   }
+
+  /**
+   * Test that the single pass engine creates exactly the same tower as the
+   * Stream pipeline. The names cover perfect squares, short last rows, leading
+   * and trailing spaces and characters that change length when uppercased.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "ab", "First Middle Last", "abcdefghi",
+      "abcdefghij", " leading", "trailing ", "  ", "J\u00FCrgen Stra\u00DFe",
+      "\uD801\uDC28\uD801\uDC29 deseret"})
+  void testThatSinglePassMatchesStreamPipeline(String name) {
+    // Given: a name
+
+    // When: the tower is built both ways
+    String expected = nameTower.generateTower(name);
+    String tower = nameTower.generateTowerSinglePass(name);
+
+    // Then: the towers are identical
+    assertThat(tower).isEqualTo(expected);
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatSinglePassNullNameThrowsException() {
+    // Given: a null name
+    String name = null;
+
+    // When: the tower is built
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> nameTower.generateTowerSinglePass(name))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  /**
+   * Test that the Latin-1 path and the Stream pipeline agree for every Latin-1
+   * character, including the ones that have to leave the Latin-1 path.
+   */
+  @Test
+  void testThatSinglePassMatchesStreamPipelineForEveryLatin1Character() {
+    for(char ch = 0; ch < 256; ch++) {
+      // Given: a name holding the character in several positions
+      String name = ch + "ab" + ch + " c" + ch;
+
+      // When: the tower is built both ways
+      String expected = nameTower.generateTower(name);
+      String tower = nameTower.generateTowerSinglePass(name);
+
+      // Then: the towers are identical
+      assertThat(tower).isEqualTo(expected);
+    }
+  }
+
+  /**
+   * Test that a surrogate pair is treated as a single character and is never
+   * split between rows or separated by a space.
+   */
+  @Test
+  void testThatSurrogatePairsAreNotSplit() {
+    // Given: a name of four emoji, each a surrogate pair
+    String smile = "\uD83D\uDE00";
+    String name = smile.repeat(4);
+
+    // When: the tower is built
+    String tower = nameTower.generateTower(name);
+
+    // Then: the tower has two rows of one and three emoji
+    assertThat(tower).isEqualTo("  " + smile + "\n" + smile + " " + smile + " "
+        + smile);
+    assertThat(nameTower.generateTowerSinglePass(name)).isEqualTo(tower);
+    assertThat(nameTower.row(name, 2)).isEqualTo(tower.split("\n")[1]);
+  }
+
+  /**
+   * Test that the name is uppercased before the rows are laid out, so a
+   * character that becomes two characters takes two places in the tower and
+   * the rows stay centered.
+   */
+  @Test
+  void testThatCharactersThatExpandAreLaidOutAfterUppercasing()
+      throws IOException {
+    // Given: a name with a German sharp s, which becomes "SS"
+    String name = "Stra\u00DFe";
+
+    String expected = """
+            S
+          T R A
+        S S E * *""";
+
+    // When: the tower is built each way
+    String tower = nameTower.generateTower(name);
+    StringWriter out = new StringWriter();
+    nameTower.generateTower(name, out);
+
+    // Then: the tower is laid out from "STRASSE"
+    assertThat(tower).isEqualTo(expected);
+    assertThat(nameTower.generateTowerSinglePass(name)).isEqualTo(expected);
+    assertThat(out.toString()).isEqualTo(expected);
+    assertThat(nameTower.row(name, 3)).isEqualTo("S S E * *");
+  }
+
+  /**
+   * Test that names are uppercased with the root locale unless a locale is
+   * given.
+   */
+  @Test
+  void testThatLocaleIsUsedForUppercasing() {
+    // Given: a NameTower for Turkish, where 'i' becomes a dotted capital I
+    NameTower turkish = new NameTower(new Locale("tr", "TR"));
+
+    // When: the tower for "i" is built with each NameTower
+    // Then: only the Turkish tower has the dotted capital I
+    assertThat(nameTower.generateTower("i")).isEqualTo("I");
+    assertThat(turkish.generateTower("i")).isEqualTo("\u0130");
+    assertThat(turkish.generateTowerSinglePass("i")).isEqualTo("\u0130");
+  }
+
+  /**
+   * Test that centering by display width counts each wide character as two
+   * columns, and that every way of building the tower agrees.
+   */
+  @Test
+  void testThatWideCharactersAreCenteredByDisplayWidth() throws IOException {
+    // Given: a name of four ideographs and a NameTower centering by width
+    String name = "\u5C71\u7530\u592A\u90CE";
+    NameTower byWidth =
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH);
+
+    // When: the tower is built
+    String tower = byWidth.generateTower(name);
+    StringWriter out = new StringWriter();
+    byWidth.generateTower(name, out);
+
+    // Then: the top row is moved over to the middle of the wider bottom row
+    assertThat(tower).isEqualTo("   \u5C71\n\u7530 \u592A \u90CE");
+    assertThat(nameTower.generateTower(name))
+        .isEqualTo("  \u5C71\n\u7530 \u592A \u90CE");
+    assertThat(byWidth.generateTowerSinglePass(name)).isEqualTo(tower);
+    assertThat(out.toString()).isEqualTo(tower);
+    assertThat(byWidth.row(name, 1)).isEqualTo("   \u5C71");
+  }
+
+  /**
+   * Test that centering by display width gives the same tower as centering by
+   * character count when every character takes one column.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "abcdefghij",
+      "J\u00FCrgen Stra\u00DFe"})
+  void testThatDisplayWidthCenteringMatchesForSingleWidthNames(String name) {
+    // Given: a NameTower centering by width
+    NameTower byWidth =
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH);
+
+    // When: the tower is built
+    String tower = byWidth.generateTower(name);
+
+    // Then: it is the same as the tower centered by character count
+    assertThat(tower).isEqualTo(nameTower.generateTower(name));
+    assertThat(byWidth.generateTowerSinglePass(name)).isEqualTo(tower);
+  }
+
+  /**
+   * Test that writing the tower to a Writer gives exactly the same characters
+   * as the String form.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "ab", "First Middle Last", "abcdefghi",
+      "abcdefghij", " leading", "trailing ", "  ", "J\u00FCrgen Stra\u00DFe",
+      "\uD801\uDC28\uD801\uDC29 deseret"})
+  void testThatStreamedTowerMatchesStringTower(String name)
+      throws IOException {
+    // Given: a name and a Writer
+    StringWriter writer = new StringWriter();
+
+    // When: the tower is written to the Writer
+    nameTower.generateTower(name, writer);
+
+    // Then: the Writer holds the same tower as the String form
+    assertThat(writer.toString()).isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that the tower is written a row at a time and never as a whole.
+   */
+  @Test
+  void testThatStreamedTowerIsWrittenOneRowAtATime() throws IOException {
+    // Given: a name that makes a tower of 100 rows
+    String name = "x".repeat(100 * 100);
+    List<Integer> appendLengths = new ArrayList<>();
+    Appendable out = new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        appendLengths.add(csq.length());
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        return append(String.valueOf(c));
+      }
+    };
+
+    // When: the tower is written
+    nameTower.generateTower(name, out);
+
+    // Then: each append holds no more than one row and its linefeed
+    assertThat(appendLengths).hasSize(100);
+    assertThat(appendLengths).allMatch(length -> length <= 2 * 199);
+  }
+
+  /**
+   * Test that a tower streamed from a Reader with a declared length matches
+   * the String form.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "abcdefghij",
+      "J\u00FCrgen Stra\u00DFe", "\uD801\uDC28\uD801\uDC29 deseret"})
+  void testThatTowerStreamedFromReaderMatchesStringTower(String name)
+      throws IOException {
+    // Given: a name and its length once uppercased
+    String upper = nameTower.toUpperCase(name);
+    long nameLength = upper.codePointCount(0, upper.length());
+    StringWriter writer = new StringWriter();
+
+    // When: the tower is streamed from a Reader
+    nameTower.generateTower(new StringReader(name), nameLength, writer);
+
+    // Then: the Writer holds the same tower as the String form
+    assertThat(writer.toString()).isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that a name that is not the declared length is reported.
+   */
+  @Test
+  void testThatWrongDeclaredLengthThrowsException() {
+    // Given: a name of four characters
+    String name = "abcd";
+
+    // When/Then: declaring a longer or shorter name throws
+    assertThatThrownBy(() -> nameTower.generateTower(new StringReader(name), 5,
+        new StringWriter())).isInstanceOf(IOException.class)
+            .hasMessageContaining("ended after 4");
+    assertThatThrownBy(() -> nameTower.generateTower(new StringReader(name), 3,
+        new StringWriter())).isInstanceOf(IOException.class)
+            .hasMessageContaining("longer than the declared 3");
+    assertThatThrownBy(() -> nameTower.generateTower(new StringReader(name), -1,
+        new StringWriter())).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * Test that a tower streamed between channels matches the String form in
+   * UTF-8.
+   */
+  @Test
+  void testThatTowerStreamedBetweenChannelsMatchesStringTower()
+      throws IOException {
+    // Given: a name in UTF-8 behind a channel
+    String name = "\u4E2D\u6587 J\u00FCrgen \uD83D\uDE00";
+    ReadableByteChannel in = Channels.newChannel(
+        new ByteArrayInputStream(name.getBytes(StandardCharsets.UTF_8)));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    // When: the tower is streamed from channel to channel
+    nameTower.generateTower(in, name.codePointCount(0, name.length()),
+        Channels.newChannel(bytes));
+
+    // Then: the bytes are the tower in UTF-8
+    assertThat(bytes.toString(StandardCharsets.UTF_8))
+        .isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that a name in a file, long enough to be read in several blocks, is
+   * streamed without a declared length, and that centering by display width
+   * works from a file but not from a Reader.
+   */
+  @Test
+  void testThatTowerStreamedFromFileMatchesStringTower(@TempDir Path dir)
+      throws IOException {
+    // Given: a name of wide characters in a file
+    NameTower byWidth =
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH);
+    String name = "\u4E2D\u6587 name ".repeat(1000);
+    Path names = Files.writeString(dir.resolve("name.txt"), name);
+    Path towers = dir.resolve("tower.txt");
+
+    // When: the tower is streamed from the file
+    try(FileChannel in = FileChannel.open(names);
+        FileChannel out = FileChannel.open(towers, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE)) {
+      byWidth.generateTower(in, out);
+    }
+
+    // Then: the file holds the tower, and a Reader is refused
+    assertThat(Files.readString(towers))
+        .isEqualTo(byWidth.generateTower(name));
+    assertThatThrownBy(() -> byWidth.generateTower(new StringReader(name),
+        name.length(), new StringWriter()))
+            .isInstanceOf(IllegalStateException.class);
+  }
+
+  /**
+   * Test that each row returned by row() is the matching line of the full
+   * tower.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "abcdefghi",
+      "abcdefghij", "J\u00FCrgen Stra\u00DFe"})
+  void testThatRowMatchesLineOfTower(String name) {
+    // Given: the full tower split into lines
+    String[] lines = nameTower.generateTower(name).split("\n");
+
+    // When: each row is rendered on its own
+    // Then: each row matches the line from the full tower
+    for(int rowNum = 1; rowNum <= lines.length; rowNum++) {
+      assertThat(nameTower.row(name, rowNum)).isEqualTo(lines[rowNum - 1]);
+    }
+  }
+
+  /**
+   * Test that a range of rows is the matching lines of the full tower.
+   */
+  @Test
+  void testThatRowsReturnsRangeOfTower() {
+    // Given: a name
+    String name = "First Middle Last";
+
+    // When: rows 2 through 4 are rendered
+    List<String> rows = nameTower.rows(name, 2, 5);
+
+    // Then: the rows are correct
+    assertThat(rows).containsExactly("      I R S", "    T * M I D",
+        "  D L E * L A S");
+  }
+
+  /**
+   * Test that asking for a row that is not in the tower throws an exception.
+   */
+  @Test
+  void testThatRowOutsideTowerThrowsException() {
+    // Given: a name that makes a five row tower
+    String name = "First Middle Last";
+
+    // When: a missing row is rendered
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> nameTower.row(name, 0))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> nameTower.row(name, 6))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> nameTower.rows(name, 4, 7))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  /**
+   * Test that an empty name gives an empty tower, with no rows, from every
+   * way of building one.
+   */
+  @Test
+  void testThatEmptyNameGivesEmptyTower() throws IOException {
+    // Given: an empty name and somewhere to stream its tower
+    String name = "";
+    StringWriter out = new StringWriter();
+
+    // When: the tower is built every way
+    nameTower.generateTower((CharSequence)name, out);
+
+    // Then: each tower is empty and there is no first row
+    assertThat(nameTower.generateTower(name)).isEmpty();
+    assertThat(nameTower.generateTowerSinglePass(name)).isEmpty();
+    assertThat(out.toString()).isEmpty();
+    assertThat(nameTower.tower(name).toString()).isEmpty();
+    assertThat(nameTower.rows(name, 1, 1)).isEmpty();
+    assertThat(nameTower.rowStream(name)).isEmpty();
+    assertThat(NameTower.outputLength(name.length())).isZero();
+    assertThatThrownBy(() -> nameTower.row(name, 1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  /**
+   * Test that the row Stream, joined with linefeeds, is the full tower whether
+   * it runs sequentially or in parallel.
+   */
+  @Test
+  void testThatRowStreamMatchesTower() {
+    // Given: a name that makes a tower of many rows
+    String name = "First Middle Last ".repeat(500);
+    String expected = nameTower.generateTower(name);
+
+    // When: the rows are streamed and joined
+    String sequential =
+        nameTower.rowStream(name).collect(Collectors.joining("\n"));
+    String parallel = nameTower.rowStream(name).parallel()
+        .collect(Collectors.joining("\n"));
+
+    // Then: both match the full tower
+    assertThat(sequential).isEqualTo(expected);
+    assertThat(parallel).isEqualTo(expected);
+  }
+
+  /**
+   * Test that the closed-form row count and output length match the towers
+   * the Stream pipeline actually renders, for every name length up to 2,500
+   * (every tower of up to 50 rows).
+   */
+  @Test
+  void testThatOutputLengthMatchesRenderedTowerForEveryLength() {
+    for(int nameLength = 1; nameLength <= 2_500; nameLength++) {
+      // Given: a name of the given length
+      String name = "a b".repeat(nameLength).substring(0, nameLength);
+
+      // When: the tower is rendered
+      String tower = nameTower.generateTower(name);
+
+      // Then: its length and row count were known up front
+      assertThat(tower).hasSize(NameTower.outputLength(nameLength));
+      assertThat(tower.split("\n")).hasSize(NameTower.rowCount(nameLength));
+    }
+  }
+
+  /**
+   * Test the row count on each side of every perfect square that fits in an
+   * int. The row count only changes just past a perfect square, so this
+   * covers every name length.
+   */
+  @Test
+  void testThatRowCountChangesJustPastEveryPerfectSquare() {
+    for(int rows = 1; rows <= 46_340; rows++) {
+      // Given: the longest name that fits in the given number of rows
+      int square = rows * rows;
+
+      // When: the row counts are calculated
+      // Then: one more character needs one more row
+      assertThat(NameTower.rowCount(square)).isEqualTo(rows);
+      assertThat(NameTower.rowCount(square + 1)).isEqualTo(rows + 1);
+    }
+
+    assertThat(NameTower.rowCount(0)).isZero();
+    assertThat(NameTower.rowCount(Integer.MAX_VALUE)).isEqualTo(46_341);
+  }
+
+  /**
+   * Test that a negative length, or a tower too big for a String, is
+   * rejected.
+   */
+  @Test
+  void testThatOutputLengthRejectsBadLengths() {
+    assertThat(NameTower.outputLength(0)).isZero();
+    assertThatThrownBy(() -> NameTower.outputLength(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> NameTower.outputLength(Integer.MAX_VALUE))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * Test that laying out the rows does work in proportion to the length of the
+   * name. Rather than timing it, the work is counted: the rows are kept in a
+   * list that can be read by index (not a LinkedList walked from its head for
+   * every row), every char of the name is copied into exactly one raw row, and
+   * the bytes allocated to lay out a name are never more than a few per char
+   * of the finished tower. A layout that copied the rest of the name for every
+   * row would allocate thousands of times more for a name of four million
+   * characters.
+   */
+  @Test
+  void testThatLayoutWorkIsLinearInNameLength() {
+    // Given: a JVM that counts the bytes each thread allocates
+    assumeTrue(ManagementFactory.getThreadMXBean()
+        instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+    nameTower.centerCharactersInRows(nameTower.extractRawRows("a b".repeat(9)));
+
+    for(int length : new int[] {10_000, 100_000, 4_000_000}) {
+      String name = "a b".repeat(length / 3);
+
+      // When: the rows are laid out
+      long threadId = Thread.currentThread().getId();
+      long before = threads.getThreadAllocatedBytes(threadId);
+      List<String> rows = nameTower.extractRawRows(name);
+      nameTower.centerCharactersInRows(rows);
+      long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+      // Then: the work counted is in proportion to the size of the tower
+      int numRows = NameTower.rowCount(name.length());
+      assertThat(rows).isInstanceOf(RandomAccess.class).hasSize(numRows);
+      assertThat(rows.stream().mapToLong(String::length).sum())
+          .isEqualTo((long)numRows * numRows);
+      assertThat(allocated)
+          .isLessThan(4L * NameTower.outputLength(name.length()));
+    }
+  }
 }
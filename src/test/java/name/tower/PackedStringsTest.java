@@ -0,0 +1,45 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PackedStringsTest {
+
+  /**
+   * Test that strings are packed end to end and can be read back.
+   */
+  @Test
+  void testThatStringsArePackedEndToEnd() {
+    // Given: some strings, one of them not ASCII
+    List<String> strings = List.of("First", "", "Stra\u00DFe");
+
+    // When: the strings are packed
+    PackedStrings packed = PackedStrings.of(strings);
+
+    // Then: the offsets and bytes are correct
+    assertThat(packed.size()).isEqualTo(3);
+    assertThat(packed.offset(1)).isEqualTo(5);
+    assertThat(packed.byteLength(1)).isZero();
+    assertThat(packed.byteLength(2)).isEqualTo(7);
+    assertThat(packed.get(0)).isEqualTo("First");
+    assertThat(packed.get(2)).isEqualTo("Stra\u00DFe");
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatOffsetsPastEndOfDataThrowException() {
+    // Given: offsets that run past the end of the data
+    ByteBuffer data = ByteBuffer.allocate(4);
+    int[] offsets = {0, 2, 5};
+
+    // When: the strings are wrapped
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> new PackedStrings(data, offsets))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
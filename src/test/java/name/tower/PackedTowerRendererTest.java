@@ -0,0 +1,81 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class PackedTowerRendererTest {
+
+  private NameTower nameTower = new NameTower();
+  private PackedTowerRenderer renderer = new PackedTowerRenderer();
+
+  /**
+   * Test that each packed tower is the UTF-8 encoding of the tower for its
+   * name, for both ASCII names and names that take the slow path.
+   */
+  @Test
+  void testThatPackedTowersMatchStreamPipeline() {
+    // Given: a packed batch of ASCII and non-ASCII names
+    List<String> names = List.of("First Middle Last", "a", "J\u00FCrgen",
+        "Stra\u00DFe", "abcdefghij ".repeat(200), "O'Brien-Smith");
+    PackedStrings packed = PackedStrings.of(names);
+
+    // When: the batch is rendered
+    PackedStrings towers = renderer.render(packed);
+
+    // Then: each tower matches the Stream pipeline
+    assertThat(towers.size()).isEqualTo(names.size());
+
+    for(int index = 0; index < names.size(); index++) {
+      assertThat(towers.get(index))
+          .isEqualTo(nameTower.generateTower(names.get(index)));
+    }
+  }
+
+  /**
+   * Test that the towers follow the locale and centering of the NameTower the
+   * renderer was given, for short and long ASCII names and for names that
+   * take the slow path.
+   */
+  @Test
+  void testThatNameTowerLocaleAndCenteringAreUsed() {
+    // Given: names that uppercase or center differently
+    List<String> names = List.of("istanbul", "\u4E2D\u6587 name",
+        "First Middle Last", "istanbul ".repeat(200));
+    PackedStrings packed = PackedStrings.of(names);
+
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // When: the batch is rendered for a configured NameTower
+      PackedStrings towers = new PackedTowerRenderer(configured).render(packed);
+
+      // Then: each tower matches the configured NameTower
+      for(int index = 0; index < names.size(); index++) {
+        assertThat(towers.get(index))
+            .isEqualTo(configured.generateTower(names.get(index)));
+      }
+    }
+  }
+
+  /**
+   * Test that names can be read from a direct buffer.
+   */
+  @Test
+  void testThatNamesAreReadFromDirectBuffer() {
+    // Given: names packed in a direct buffer
+    byte[] bytes = "AlBobCarol".getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer data = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+    PackedStrings packed = new PackedStrings(data, new int[] {0, 2, 5, 10});
+
+    // When: the batch is rendered
+    PackedStrings towers = renderer.render(packed);
+
+    // Then: each tower matches the Stream pipeline
+    assertThat(towers.get(0)).isEqualTo(nameTower.generateTower("Al"));
+    assertThat(towers.get(1)).isEqualTo(nameTower.generateTower("Bob"));
+    assertThat(towers.get(2)).isEqualTo(nameTower.generateTower("Carol"));
+  }
+}
@@ -0,0 +1,89 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelTowerRendererTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the parallel renderer creates exactly the same tower as the
+   * Stream pipeline. A threshold of one splits the rows down to one row per
+   * task.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "ab", "First Middle Last", "abcdefghi",
+      "abcdefghij", " leading", "trailing ", "J\u00FCrgen Stra\u00DFe",
+      "\uD801\uDC28\uD801\uDC29 deseret"})
+  void testThatParallelTowerMatchesStreamPipeline(String name) {
+    // Given: a renderer that splits every row into its own task
+    ParallelTowerRenderer renderer =
+        new ParallelTowerRenderer(ForkJoinPool.commonPool(), 1);
+
+    // When: the tower is built
+    String tower = renderer.generateTower(name);
+
+    // Then: the tower matches the Stream pipeline
+    assertThat(tower).isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that the renderer follows the locale and centering of the NameTower
+   * it is given.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"istanbul diyarbak\u0131r", "\u4E2D\u6587 name",
+      "First Middle Last"})
+  void testThatNameTowerLocaleAndCenteringAreUsed(String name) {
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // Given: a renderer for a configured NameTower
+      ParallelTowerRenderer renderer = new ParallelTowerRenderer(configured,
+          ForkJoinPool.commonPool(), 1);
+
+      // When: the tower is built
+      String tower = renderer.generateTower(name);
+
+      // Then: the tower matches the configured NameTower
+      assertThat(tower).isEqualTo(configured.generateTower(name));
+    }
+  }
+
+  /**
+   * Test that a tower of a million characters is rendered correctly with the
+   * default settings.
+   */
+  @Test
+  void testThatLargeTowerMatchesStreamPipeline() {
+    // Given: a long name
+    String name = "First Middle Last ".repeat(60_000);
+
+    // When: the tower is built
+    String tower = new ParallelTowerRenderer().generateTower(name);
+
+    // Then: the tower matches the Stream pipeline
+    assertThat(tower).isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatThresholdLessThanOneThrowsException() {
+    // Given: a threshold of zero
+    int threshold = 0;
+
+    // When: the renderer is created
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> new ParallelTowerRenderer(
+        ForkJoinPool.commonPool(), threshold))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,132 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RowKernelTest {
+
+  /**
+   * Returns every Latin-1 character the kernels can take, in order.
+   */
+  private static String renderableCharacters() {
+    StringBuilder chars = new StringBuilder();
+
+    for(char ch = 0; ch < 256; ch++) {
+      if(Latin1Case.towerChar(ch) != Latin1Case.NONE) {
+        chars.append(ch);
+      }
+    }
+
+    return chars.toString();
+  }
+
+  /**
+   * Render a name with a kernel and return the tower as a String.
+   */
+  private static String render(RowKernel kernel, String name) {
+    byte[] tower = new byte[RowKernel.bufferLength(name.length())];
+    int length =
+        kernel.render(name.getBytes(StandardCharsets.ISO_8859_1), tower);
+
+    return new String(tower, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Test that the best kernel interleaves every renderable character the same
+   * way as the scalar kernel, in every lane of the SIMD register. Running
+   * through the characters twice, one position apart, puts each character in
+   * odd and even lanes and in the leftover part past the last full register.
+   */
+  @Test
+  void testThatBestKernelMatchesScalarKernelForEveryCharacter() {
+    // Given: every renderable character, twice over and shifted by one
+    byte[] name = (renderableCharacters() + "x" + renderableCharacters())
+        .getBytes(StandardCharsets.ISO_8859_1);
+
+    for(int from = 0; from < 70; from++) {
+      int count = name.length - from;
+      byte[] expected = new byte[2 * count];
+      byte[] actual = new byte[2 * count];
+
+      // When: the characters are interleaved by each kernel
+      RowKernel.scalar().interleave(name, from, count, expected, 0);
+      RowKernel.best().interleave(name, from, count, actual, 0);
+
+      // Then: the bytes are the same
+      assertThat(actual).isEqualTo(expected);
+    }
+  }
+
+  /**
+   * Test that both kernels render the same tower as the Stream pipeline,
+   * including towers whose rows are shorter and longer than a SIMD register
+   * and whose last row is filled out with asterisks.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 5, 63, 64, 65, 1000, 4097, 100_000})
+  void testThatKernelsMatchStreamPipeline(int nameLength) {
+    // Given: a random name of renderable characters
+    String chars = renderableCharacters();
+    Random random = new Random(nameLength);
+    StringBuilder name = new StringBuilder();
+
+    for(int index = 0; index < nameLength; index++) {
+      name.append(chars.charAt(random.nextInt(chars.length())));
+    }
+
+    String expected = new NameTower().generateTower(name.toString());
+
+    // When: the tower is rendered by each kernel
+    String scalar = render(RowKernel.scalar(), name.toString());
+    String best = render(RowKernel.best(), name.toString());
+
+    // Then: both towers match the pipeline
+    assertThat(scalar).isEqualTo(expected);
+    assertThat(best).isEqualTo(expected);
+  }
+
+  /**
+   * Test that the vector kernel is chosen when the Vector API module is
+   * present (the build adds it to the test JVM) and the CPU has SIMD
+   * registers, and that the scalar kernel is chosen otherwise.
+   */
+  @Test
+  void testThatBestKernelIsVectorKernelWhenModuleIsPresent() {
+    // Given: the Vector API module may or may not be present
+    boolean present =
+        ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // When: the best kernel is chosen
+    RowKernel kernel = RowKernel.best();
+
+    // Then: it is the vector kernel only if the module is there
+    if(!present) {
+      assertThat(kernel).isInstanceOf(ScalarRowKernel.class);
+    }
+    else if(kernel.isAccelerated()) {
+      assertThat(kernel.getClass().getSimpleName())
+          .isEqualTo("VectorRowKernel");
+    }
+  }
+
+  /**
+   * Test that the single pass uses a kernel for a long Latin-1 name and still
+   * gives the same tower as the Stream pipeline.
+   */
+  @Test
+  void testThatLongLatin1NameMatchesInSinglePass() {
+    // Given: a name longer than the cached layouts
+    String name = "J\u00FCrgen M\u00FCller ".repeat(5_000);
+    NameTower nameTower = new NameTower();
+
+    // When: the tower is generated in a single pass
+    String tower = nameTower.generateTowerSinglePass(name);
+
+    // Then: it matches the pipeline
+    assertThat(tower).isEqualTo(nameTower.generateTower(name));
+  }
+}
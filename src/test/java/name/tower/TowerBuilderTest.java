@@ -0,0 +1,149 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TowerBuilderTest {
+
+  /**
+   * The pieces typed in the random sessions: plain letters, a space,
+   * characters that expand or change width, a dotted i for Lithuanian,
+   * combining marks and both halves of a surrogate pair on their own.
+   */
+  private static final String[] PIECES = {"a", "b", " ", "\u00DF", "i",
+      "\u0307", "\u0301", "\u4E2D", "\u01C5", "\uD83D\uDE00", "\uD83D",
+      "\uDE00"};
+
+  /**
+   * Test that after every edit of a random typing session the tower is the
+   * same as a full render, and that applying each diff to the rows shown so
+   * far gives the same tower.
+   */
+  @Test
+  void testThatIncrementalTowerMatchesFullRender() {
+    for(NameTower nameTower : List.of(new NameTower(),
+        new NameTower(new Locale("lt", "LT")),
+        new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      Random random = new Random(25);
+
+      for(int session = 0; session < 20; session++) {
+        // Given: an empty builder, an empty name and no rows on show
+        TowerBuilder builder = new TowerBuilder(nameTower);
+        StringBuilder name = new StringBuilder();
+        List<String> shown = new ArrayList<>();
+
+        for(int edit = 0; edit < 300; edit++) {
+          // When: a few chars are deleted or a piece or a paste is added
+          TowerBuilder.Diff diff;
+
+          if(name.length() > 0 && random.nextInt(4) == 0) {
+            int count = 1 + random.nextInt(Math.min(3, name.length()));
+            name.setLength(name.length() - count);
+            diff = builder.deleteLast(count);
+          }
+          else {
+            StringBuilder text = new StringBuilder();
+            int pieces = random.nextInt(10) == 0 ? 40 : 1;
+
+            for(int piece = 0; piece < pieces; piece++) {
+              text.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+
+            name.append(text);
+            diff = builder.append(text);
+          }
+
+          apply(diff, shown);
+
+          // Then: both the builder and the rows on show match a full render
+          String expected = name.length() == 0 ? ""
+              : nameTower.generateTower(name.toString());
+
+          assertThat(builder.name()).isEqualTo(name.toString());
+          assertThat(builder.tower()).isEqualTo(expected);
+          assertThat(String.join("\n", shown)).isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that a keystroke that does not add a row changes only the last row,
+   * and one that adds a row recenters every row.
+   */
+  @Test
+  void testThatOnlyAffectedRowsAreInDiff() {
+    // Given: a name that fills five rows but one
+    TowerBuilder builder = new TowerBuilder();
+    builder.append("x".repeat(24));
+
+    // When: a letter is typed, then another
+    TowerBuilder.Diff lastRow = builder.append("y");
+    TowerBuilder.Diff newRow = builder.append("z");
+
+    // Then: the first changes the last row, the second every row
+    assertThat(lastRow.rowCount()).isEqualTo(5);
+    assertThat(lastRow.changes()).containsExactly(
+        new TowerBuilder.Row(5, "X X X X X X X X Y"));
+    assertThat(newRow.rowCount()).isEqualTo(6);
+    assertThat(newRow.changes()).extracting(TowerBuilder.Row::rowNum)
+        .containsExactly(1, 2, 3, 4, 5, 6);
+  }
+
+  /**
+   * Test that deleting back to an empty name empties the tower.
+   */
+  @Test
+  void testThatDeletingEverythingEmptiesTower() {
+    // Given: a builder with a name
+    TowerBuilder builder = new TowerBuilder();
+    builder.append("First Middle Last");
+
+    // When: every char is deleted
+    TowerBuilder.Diff diff = builder.deleteLast(17);
+
+    // Then: there are no rows left
+    assertThat(diff.rowCount()).isZero();
+    assertThat(diff.changes()).isEmpty();
+    assertThat(builder.tower()).isEmpty();
+  }
+
+  /**
+   * Test that a bad delete count is refused.
+   */
+  @Test
+  void testThatBadDeleteCountThrowsException() {
+    // Given: a builder with a three char name
+    TowerBuilder builder = new TowerBuilder();
+    builder.append("abc");
+
+    // When/Then: deleting more than the name or less than nothing throws
+    assertThatThrownBy(() -> builder.deleteLast(4))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.deleteLast(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * Apply a diff to the rows on show.
+   */
+  private static void apply(TowerBuilder.Diff diff, List<String> shown) {
+    while(shown.size() > diff.rowCount()) {
+      shown.remove(shown.size() - 1);
+    }
+
+    while(shown.size() < diff.rowCount()) {
+      shown.add(null);
+    }
+
+    for(TowerBuilder.Row row : diff.changes()) {
+      shown.set(row.rowNum() - 1, row.text());
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TowerFileProcessorTest {
+
+  private static final List<String> NAMES = List.of("First Middle Last",
+      "Ann", "J\u00FCrgen M\u00FCller", "Stra\u00DFe",
+      "\u5C71\u7530\u592A\u90CE", "abcdefghijklmnopqrstuvwxyz ".repeat(50),
+      "\uD801\uDC28 deseret", "J\u00FCrgen ".repeat(200), "Bo");
+
+  private NameTower nameTower = new NameTower();
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Test that the towers file holds the tower of every name, in order, each
+   * followed by a linefeed. The file is cut into more chunks than there are
+   * threads, and with a parallelism of 20 into more chunks than there are
+   * lines, so some chunks are empty.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 20})
+  void testThatTowersFileHoldsEveryTower(int parallelism) throws IOException {
+    // Given: a names file
+    Path namesFile = tempDir.resolve("names.txt");
+    Path towersFile = tempDir.resolve("towers.txt");
+    Files.write(namesFile, NAMES, StandardCharsets.UTF_8);
+
+    // When: the file is processed
+    TowerFileProcessor.Stats stats =
+        new TowerFileProcessor(ForkJoinPool.commonPool(), parallelism)
+            .process(namesFile, towersFile);
+
+    // Then: the towers are those of the String form
+    StringBuilder expected = new StringBuilder();
+
+    for(String name : NAMES) {
+      expected.append(nameTower.generateTower(name)).append('\n');
+    }
+
+    assertThat(Files.readString(towersFile, StandardCharsets.UTF_8))
+        .isEqualTo(expected.toString());
+    assertThat(stats.nameCount()).isEqualTo(NAMES.size());
+    assertThat(stats.inputBytes()).isEqualTo(Files.size(namesFile));
+    assertThat(stats.outputBytes()).isEqualTo(Files.size(towersFile));
+  }
+
+  /**
+   * Test that blank lines are skipped, carriage returns at the ends of lines
+   * are dropped and a last line without a linefeed is kept.
+   */
+  @Test
+  void testThatBlankLinesAndCarriageReturnsAreSkipped() throws IOException {
+    // Given: a names file with Windows line ends and blank lines
+    Path namesFile = tempDir.resolve("names.txt");
+    Path towersFile = tempDir.resolve("towers.txt");
+    Files.writeString(namesFile, "Ann\r\n\r\n\nBo\nCy");
+
+    // When: the file is processed
+    new TowerFileProcessor().process(namesFile, towersFile);
+
+    // Then: there is a tower for each name and nothing else
+    assertThat(Files.readString(towersFile)).isEqualTo(
+        nameTower.generateTower("Ann") + "\n" + nameTower.generateTower("Bo")
+            + "\n" + nameTower.generateTower("Cy") + "\n");
+  }
+
+  /**
+   * Test that an empty names file gives an empty towers file, replacing
+   * anything that was in it.
+   */
+  @Test
+  void testThatEmptyFileGivesEmptyFile() throws IOException {
+    // Given: an empty names file and a towers file from an earlier run
+    Path namesFile = Files.createFile(tempDir.resolve("names.txt"));
+    Path towersFile = tempDir.resolve("towers.txt");
+    Files.writeString(towersFile, "old towers");
+
+    // When: the file is processed
+    TowerFileProcessor.Stats stats =
+        new TowerFileProcessor().process(namesFile, towersFile);
+
+    // Then: the towers file is empty
+    assertThat(Files.size(towersFile)).isZero();
+    assertThat(stats.nameCount()).isZero();
+  }
+
+  /**
+   * Test that the towers follow the locale and centering of the NameTower the
+   * processor was given, for short and long ASCII names and for others.
+   */
+  @Test
+  void testThatNameTowerLocaleAndCenteringAreUsed() throws IOException {
+    // Given: a names file with names that uppercase or center differently
+    Path namesFile = tempDir.resolve("names.txt");
+    Path towersFile = tempDir.resolve("towers.txt");
+    List<String> names = List.of("istanbul", "\u4E2D\u6587 name",
+        "First Middle Last", "istanbul ".repeat(200));
+    Files.write(namesFile, names, StandardCharsets.UTF_8);
+
+    for(NameTower configured : List.of(new NameTower(new Locale("tr", "TR")),
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // When: the file is processed with a configured NameTower
+      new TowerFileProcessor(configured, ForkJoinPool.commonPool(), 2)
+          .process(namesFile, towersFile);
+
+      // Then: the towers are those of the configured NameTower
+      StringBuilder expected = new StringBuilder();
+
+      for(String name : names) {
+        expected.append(configured.generateTower(name)).append('\n');
+      }
+
+      assertThat(Files.readString(towersFile, StandardCharsets.UTF_8))
+          .isEqualTo(expected.toString());
+    }
+  }
+
+  /**
+   * Test that a parallelism of less than one is rejected.
+   */
+  @Test
+  void testThatParallelismLessThanOneThrowsException() {
+    // Given: a parallelism of zero
+    int parallelism = 0;
+
+    // When: the processor is created
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> new TowerFileProcessor(ForkJoinPool.commonPool(),
+        parallelism)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
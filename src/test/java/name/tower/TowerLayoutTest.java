@@ -0,0 +1,86 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+class TowerLayoutTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the layout puts each name character where the Stream pipeline
+   * puts it.
+   */
+  @Test
+  void testThatLayoutPositionsMatchTower() {
+    // Given: the layout for a seventeen character name
+    String name = "FIRSTXMIDDLEXLAST";
+    TowerLayout layout = TowerLayout.forLength(name.length());
+
+    // When: the tower is built
+    String tower = nameTower.generateTower(name);
+
+    // Then: the layout describes the tower
+    assertThat(layout.rowCount()).isEqualTo(5);
+    assertThat(layout.outputLength()).isEqualTo(tower.length());
+
+    for(int index = 0; index < name.length(); index++) {
+      assertThat(tower.charAt(layout.positionOf(index)))
+          .isEqualTo(name.charAt(index));
+    }
+  }
+
+  /**
+   * Test that rendering from the layout gives the same tower as the Stream
+   * pipeline for every cached length.
+   */
+  @Test
+  void testThatRenderMatchesStreamPipelineForEveryCachedLength() {
+    String alphabet = "abcdefghijklmnopqrstuvwxyz ".repeat(40);
+
+    for(int length = 1; length <= TowerLayout.MAX_CACHED_LENGTH; length++) {
+      // Given: a name of the given length
+      String name = alphabet.substring(0, length);
+      TowerLayout layout = TowerLayout.forLength(length);
+      char[] tower = new char[layout.outputLength()];
+
+      // When: the tower is rendered from the layout
+      layout.render(name.toUpperCase(), tower, 0);
+
+      // Then: the tower matches the Stream pipeline
+      assertThat(new String(tower)).isEqualTo(nameTower.generateTower(name));
+    }
+  }
+
+  /**
+   * Test that short layouts are shared and long layouts are not.
+   */
+  @Test
+  void testThatOnlyShortLayoutsAreShared() {
+    // Given: a short and a long length
+    int shortLength = 30;
+    int longLength = TowerLayout.MAX_CACHED_LENGTH + 1;
+
+    // When: the layouts are asked for twice
+    // Then: only the short layout is shared
+    assertThat(TowerLayout.forLength(shortLength))
+        .isSameAs(TowerLayout.forLength(shortLength));
+    assertThat(TowerLayout.forLength(longLength))
+        .isNotSameAs(TowerLayout.forLength(longLength));
+  }
+
+  /**
+   * 
+   */
+  @Test
+  void testThatNegativeLengthThrowsException() {
+    // Given: a negative length
+    int length = -1;
+
+    // When: the layout is asked for
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> TowerLayout.forLength(length))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
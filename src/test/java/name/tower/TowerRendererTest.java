@@ -0,0 +1,240 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TowerRendererTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the renderer writes exactly the same tower as the Stream
+   * pipeline into a char array, starting at the given offset.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "ab", "First Middle Last", "abcdefghij",
+      " leading", "trailing ", "J\u00FCrgen M\u00FCller", "Stra\u00DFe",
+      "\uD801\uDC28\uD801\uDC29 deseret", "\u5C71\u7530\u592A\u90CE"})
+  void testThatCharsMatchStreamPipeline(String name) {
+    // Given: a renderer and an array with room to spare
+    TowerRenderer renderer = new TowerRenderer();
+    char[] dest = new char[renderer.towerLength(name) + 5];
+
+    // When: the tower is rendered at an offset
+    int length = renderer.render(name, dest, 3);
+
+    // Then: the tower matches the Stream pipeline
+    assertThat(new String(dest, 3, length))
+        .isEqualTo(nameTower.generateTower(name));
+  }
+
+  /**
+   * Test that the renderer writes the UTF-8 encoding of the tower into a byte
+   * array.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "J\u00FCrgen M\u00FCller",
+      "Stra\u00DFe", "\uD801\uDC28\uD801\uDC29 deseret",
+      "\u5C71\u7530\u592A\u90CE"})
+  void testThatBytesMatchStreamPipeline(String name) {
+    // Given: a renderer and an array with room to spare
+    TowerRenderer renderer = new TowerRenderer();
+    byte[] dest = new byte[3 * renderer.towerLength(name) + 2];
+
+    // When: the tower is rendered at an offset
+    int length = renderer.render(name, dest, 2);
+
+    // Then: the bytes are the UTF-8 form of the pipeline's tower
+    assertThat(Arrays.copyOfRange(dest, 2, 2 + length)).isEqualTo(
+        nameTower.generateTower(name).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Test that the UTF-8 length worked out without rendering is the length of
+   * the UTF-8 form of the tower, whichever way it is centered.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "J\u00FCrgen M\u00FCller",
+      "Stra\u00DFe", "\u00B5 \u00FF", "\uD801\uDC28\uD801\uDC29 deseret",
+      "\u5C71\u7530\u592A\u90CE", "lone \uD801 surrogate"})
+  void testThatByteLengthMatchesUtf8Tower(String name) {
+    for(NameTower configured : List.of(nameTower,
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH))) {
+      // Given: a renderer
+      TowerRenderer renderer = new TowerRenderer(configured);
+
+      // When: the UTF-8 length is worked out
+      long byteLength = renderer.byteLength(name);
+
+      // Then: it is the length of the UTF-8 form of the pipeline's tower
+      assertThat(byteLength).isEqualTo(configured.generateTower(name)
+          .getBytes(StandardCharsets.UTF_8).length);
+    }
+  }
+
+  /**
+   * Test that an empty name renders as nothing rather than an exception.
+   */
+  @Test
+  void testThatEmptyNameRendersNothing() {
+    // Given: a renderer and room for a tower
+    TowerRenderer renderer = new TowerRenderer();
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+
+    // When: an empty name is measured and rendered
+    // Then: nothing is written
+    assertThat(renderer.towerLength("")).isZero();
+    assertThat(renderer.byteLength("")).isZero();
+    assertThat(renderer.render("", new char[0], 0)).isZero();
+    assertThat(renderer.render("", new byte[0], 0)).isZero();
+    assertThat(renderer.render("", buffer)).isZero();
+    assertThat(buffer.position()).isZero();
+  }
+
+  /**
+   * Test that one renderer gives the right tower for each of a run of names
+   * that grow and shrink, so the scratch arrays are reused and regrown, and
+   * that it follows the locale and centering of its NameTower.
+   */
+  @Test
+  void testThatRendererCanBeReused() {
+    // Given: a Turkish renderer that centers by display width
+    NameTower turkish =
+        new NameTower(new Locale("tr"), NameTower.Centering.DISPLAY_WIDTH);
+    TowerRenderer renderer = new TowerRenderer(turkish);
+    String[] names = {"istanbul", "i".repeat(5000), "\u5C71 i", "x",
+        "\u5C71\u7530".repeat(700)};
+
+    for(String name : names) {
+      // When: the tower is rendered
+      char[] dest = new char[renderer.towerLength(name)];
+      int length = renderer.render(name, dest, 0);
+
+      // Then: the tower matches the Stream pipeline
+      assertThat(new String(dest, 0, length))
+          .isEqualTo(turkish.generateTower(name));
+    }
+  }
+
+  /**
+   * Test that an array that is too small is rejected before anything is
+   * written to it.
+   */
+  @Test
+  void testThatTooSmallArrayThrowsException() {
+    // Given: an array one char short of the tower
+    TowerRenderer renderer = new TowerRenderer();
+    char[] dest = new char[renderer.towerLength("First Middle Last") - 1];
+
+    // When: the tower is rendered
+    // Then: an exception is thrown and the array is untouched
+    assertThatThrownBy(() -> renderer.render("First Middle Last", dest, 0))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThat(dest).containsOnly('\0');
+  }
+
+  /**
+   * Test that the renderer writes the UTF-8 form of the tower at the position
+   * of a heap or direct ByteBuffer and moves the position past it.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testThatByteBufferGetsUtf8Tower(boolean direct) {
+    for(String name : new String[] {"First Middle Last", "Stra\u00DFe",
+        "\u5C71\u7530\u592A\u90CE"}) {
+      // Given: a buffer with a few bytes already in it
+      byte[] expected =
+          nameTower.generateTower(name).getBytes(StandardCharsets.UTF_8);
+      ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(100)
+          : ByteBuffer.allocate(100);
+      buffer.position(3);
+
+      // When: the tower is rendered into the buffer
+      int length = new TowerRenderer().render(name, buffer);
+
+      // Then: the bytes follow the ones already there
+      byte[] actual = new byte[length];
+      buffer.get(3, actual);
+      assertThat(actual).isEqualTo(expected);
+      assertThat(buffer.position()).isEqualTo(3 + expected.length);
+    }
+  }
+
+  /**
+   * Test that a tower that does not fit in the buffer's remaining space is
+   * rejected and the buffer is left as it was.
+   */
+  @Test
+  void testThatFullByteBufferThrowsException() {
+    // Given: a buffer one byte short of the tower
+    TowerRenderer renderer = new TowerRenderer();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(renderer.towerLength("First Middle Last") - 1);
+
+    // When: the tower is rendered
+    // Then: an exception is thrown and the position has not moved
+    assertThatThrownBy(() -> renderer.render("First Middle Last", buffer))
+        .isInstanceOf(BufferOverflowException.class);
+    assertThat(buffer.position()).isZero();
+  }
+
+  /**
+   * Test that rendering allocates nothing once the renderer has warmed up,
+   * for short and long names, Latin-1 names and names of wide characters,
+   * into both kinds of array and a direct ByteBuffer.
+   */
+  @Test
+  void testThatSteadyStateAllocatesNothing() {
+    // Given: a JVM that counts the bytes each thread allocates
+    assumeTrue(ManagementFactory.getThreadMXBean()
+        instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    TowerRenderer renderer = new TowerRenderer();
+    String[] names = {"First Middle Last", "J\u00FCrgen M\u00FCller",
+        "\u5C71\u7530\u592A\u90CE", "\uD801\uDC28 deseret",
+        "First Middle Last ".repeat(200), "\u00E9".repeat(2000)};
+    char[] chars = new char[1 << 16];
+    byte[] bytes = new byte[1 << 17];
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 17);
+    renderAll(renderer, names, chars, bytes, buffer, 20_000);
+
+    // When: the names are rendered again
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    renderAll(renderer, names, chars, bytes, buffer, 1_000);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // Then: nothing was allocated
+    assertThat(allocated).isZero();
+  }
+
+  /**
+   * Render every name the given number of times into each array and the
+   * buffer.
+   */
+  private static void renderAll(TowerRenderer renderer, String[] names,
+      char[] chars, byte[] bytes, ByteBuffer buffer, int times) {
+    for(int time = 0; time < times; time++) {
+      for(String name : names) {
+        renderer.render(name, chars, 0);
+        renderer.render(name, bytes, 0);
+        renderer.render(name, buffer.clear());
+      }
+    }
+  }
+}
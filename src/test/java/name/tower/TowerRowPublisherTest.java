@@ -0,0 +1,307 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * These tests check the Publisher against the rules of the Reactive Streams
+ * specification that apply to it. The rule numbers are given in each test.
+ */
+class TowerRowPublisherTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the rows match the tower and are followed by completion when
+   * every row is requested at once.
+   */
+  @Test
+  void testThatRowsMatchTower() {
+    // Given: a subscriber to a five row tower
+    String name = "First Middle Last";
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    nameTower.rowPublisher(name).subscribe(subscriber);
+
+    // When: every row is requested
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    // Then: the rows are the lines of the tower, then completion (1.1)
+    assertThat(subscriber.rows)
+        .containsExactly(nameTower.generateTower(name).split("\n"));
+    assertThat(subscriber.completions).isEqualTo(1);
+    assertThat(subscriber.errors).isEmpty();
+  }
+
+  /**
+   * Test that no more rows are sent than have been requested (1.1, 3.8).
+   */
+  @Test
+  void testThatOnlyRequestedRowsAreSent() {
+    // Given: a subscriber to a five row tower
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    nameTower.rowPublisher("First Middle Last").subscribe(subscriber);
+
+    // When: two rows and then one more are requested
+    subscriber.subscription.request(2);
+    List<String> afterTwo = List.copyOf(subscriber.rows);
+    subscriber.subscription.request(1);
+
+    // Then: two rows and then three rows have been sent, without completion
+    assertThat(afterTwo).hasSize(2);
+    assertThat(subscriber.rows).hasSize(3);
+    assertThat(subscriber.completions).isZero();
+  }
+
+  /**
+   * Test that demand past Long.MAX_VALUE is treated as unbounded (3.17).
+   */
+  @Test
+  void testThatDemandDoesNotOverflow() {
+    // Given: a subscriber to a five row tower
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    nameTower.rowPublisher("First Middle Last").subscribe(subscriber);
+
+    // When: Long.MAX_VALUE rows are requested twice
+    subscriber.subscription.request(Long.MAX_VALUE);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    // Then: all the rows are sent once
+    assertThat(subscriber.rows).hasSize(5);
+    assertThat(subscriber.completions).isEqualTo(1);
+  }
+
+  /**
+   * Test that requesting from onNext does not recurse, so the stack does not
+   * grow with the number of rows (3.3).
+   */
+  @Test
+  void testThatRequestFromOnNextDoesNotRecurse() {
+    // Given: a subscriber that requests the next row from onNext
+    List<Integer> depths = new ArrayList<>();
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    subscriber.onRow = row -> {
+      depths.add(Thread.currentThread().getStackTrace().length);
+      subscriber.subscription.request(1);
+    };
+    nameTower.rowPublisher("x".repeat(1000 * 1000)).subscribe(subscriber);
+
+    // When: the first row is requested
+    subscriber.subscription.request(1);
+
+    // Then: all 1000 rows arrive at the same stack depth
+    assertThat(subscriber.rows).hasSize(1000);
+    assertThat(subscriber.completions).isEqualTo(1);
+    assertThat(depths).containsOnly(depths.get(0));
+  }
+
+  /**
+   * Test that a request for less than one row ends the subscription with an
+   * IllegalArgumentException (3.9).
+   */
+  @Test
+  void testThatNonPositiveRequestSignalsError() {
+    for(long n : new long[] {0, -1, Long.MIN_VALUE}) {
+      // Given: a subscriber to a five row tower
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      nameTower.rowPublisher("First Middle Last").subscribe(subscriber);
+
+      // When: a bad request is made, then a good one
+      subscriber.subscription.request(n);
+      subscriber.subscription.request(5);
+
+      // Then: only the error is signalled (1.7)
+      assertThat(subscriber.errors).hasSize(1);
+      assertThat(subscriber.errors.get(0))
+          .isInstanceOf(IllegalArgumentException.class);
+      assertThat(subscriber.rows).isEmpty();
+      assertThat(subscriber.completions).isZero();
+    }
+  }
+
+  /**
+   * Test that nothing is sent after cancel, and that calling cancel or request
+   * afterwards does nothing (3.5, 3.6, 3.7).
+   */
+  @Test
+  void testThatCancelStopsRows() {
+    // Given: a subscriber that cancels after the second row
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    subscriber.onRow = row -> {
+      if(subscriber.rows.size() == 2) {
+        subscriber.subscription.cancel();
+      }
+    };
+    nameTower.rowPublisher("First Middle Last").subscribe(subscriber);
+
+    // When: every row is requested, then more, and cancel is called again
+    subscriber.subscription.request(Long.MAX_VALUE);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+
+    // Then: only two rows were sent and the subscription did not complete
+    assertThat(subscriber.rows).hasSize(2);
+    assertThat(subscriber.completions).isZero();
+    assertThat(subscriber.errors).isEmpty();
+  }
+
+  /**
+   * Test that an empty tower completes without any request (1.4).
+   */
+  @Test
+  void testThatEmptyNameCompletesAtOnce() {
+    // Given: a subscriber that requests nothing
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    // When: it subscribes to the tower of an empty name
+    nameTower.rowPublisher("").subscribe(subscriber);
+
+    // Then: it is complete
+    assertThat(subscriber.rows).isEmpty();
+    assertThat(subscriber.completions).isEqualTo(1);
+  }
+
+  /**
+   * Test that every subscriber gets every row, however the others request.
+   */
+  @Test
+  void testThatEachSubscriberGetsAllRows() {
+    // Given: two subscribers to the same Publisher
+    Flow.Publisher<String> publisher =
+        nameTower.rowPublisher("First Middle Last");
+    RecordingSubscriber first = new RecordingSubscriber();
+    RecordingSubscriber second = new RecordingSubscriber();
+    publisher.subscribe(first);
+    publisher.subscribe(second);
+
+    // When: they request at different rates
+    first.subscription.request(1);
+    second.subscription.request(5);
+    first.subscription.request(4);
+
+    // Then: both get the same rows
+    assertThat(first.rows).hasSize(5).isEqualTo(second.rows);
+  }
+
+  /**
+   * Test that subscribing null throws a NullPointerException (1.9).
+   */
+  @Test
+  void testThatNullSubscriberThrowsException() {
+    // Given: a Publisher
+    Flow.Publisher<String> publisher = nameTower.rowPublisher("A");
+
+    // When/Then: subscribing null throws
+    assertThatThrownBy(() -> publisher.subscribe(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  /**
+   * Test that rows sent from an executor arrive in order, one at a time
+   * (1.3).
+   */
+  @Test
+  void testThatRowsFromExecutorArriveInOrder() throws InterruptedException {
+    // Given: a Publisher that sends from a pool, and a subscriber that asks
+    // for a row at a time from the pool's threads
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    String name = "x".repeat(300 * 300);
+    CountDownLatch done = new CountDownLatch(1);
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    subscriber.onRow = row -> subscriber.subscription.request(1);
+    subscriber.onDone = done::countDown;
+
+    try {
+      // When: the subscriber subscribes and asks for the first row
+      nameTower.rowPublisher(name, executor).subscribe(subscriber);
+      subscriber.subscription.request(1);
+
+      // Then: the rows arrive in order
+      assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(subscriber.rows)
+          .containsExactly(nameTower.generateTower(name).split("\n"));
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test that an executor that rejects the rows ends the subscription with
+   * onError() rather than leaving the subscriber waiting (1.4), and that a
+   * later request sends nothing more (1.7).
+   */
+  @Test
+  void testThatRejectedExecutionSignalsError() {
+    // Given: a Publisher whose executor takes one task and rejects the rest
+    AtomicInteger submitted = new AtomicInteger();
+    Executor executor = task -> {
+      if(submitted.incrementAndGet() > 1) {
+        throw new RejectedExecutionException("Executor is shut down");
+      }
+
+      task.run();
+    };
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    nameTower.rowPublisher("First Middle Last", executor)
+        .subscribe(subscriber);
+
+    // When: a row is requested, and then another
+    subscriber.subscription.request(1);
+    subscriber.subscription.request(1);
+
+    // Then: the subscriber gets the rejection once and no rows
+    assertThat(subscriber.rows).isEmpty();
+    assertThat(subscriber.completions).isZero();
+    assertThat(subscriber.errors).singleElement()
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  /**
+   * A subscriber that records what it is sent. It requests nothing on its
+   * own. The fields are volatile or written before the latch is counted down,
+   * so a test thread sees them.
+   */
+  private static class RecordingSubscriber implements Flow.Subscriber<String> {
+    volatile Flow.Subscription subscription;
+    final List<String> rows = new ArrayList<>();
+    final List<Throwable> errors = new ArrayList<>();
+    volatile int completions;
+    Consumer<String> onRow = row -> {};
+    Runnable onDone = () -> {};
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(String row) {
+      rows.add(row);
+      onRow.accept(row);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      errors.add(throwable);
+      onDone.run();
+    }
+
+    @Override
+    public void onComplete() {
+      completions++;
+      onDone.run();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import org.junit.jupiter.api.Test;
+
+class TowerRowSpliteratorTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that the Spliterator reports the characteristics that let a Stream
+   * split it evenly and know its size.
+   */
+  @Test
+  void testThatSpliteratorIsSizedAndOrdered() {
+    // Given: a Spliterator over a five row tower
+    Spliterator<String> rows = spliterator("First Middle Last", 1, 6);
+
+    // When: the characteristics are checked
+    // Then: the Spliterator is sized, ordered and immutable
+    assertThat(rows.estimateSize()).isEqualTo(5);
+    assertThat(rows.hasCharacteristics(Spliterator.SIZED
+        | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.IMMUTABLE))
+            .isTrue();
+  }
+
+  /**
+   * Test that splitting gives the first half of the rows to the new
+   * Spliterator and keeps the second half, in order.
+   */
+  @Test
+  void testThatSplitDividesRowsInOrder() {
+    // Given: a Spliterator over a five row tower
+    Spliterator<String> suffix = spliterator("First Middle Last", 1, 6);
+
+    // When: the Spliterator is split
+    Spliterator<String> prefix = suffix.trySplit();
+
+    // Then: the two halves hold all the rows in order
+    List<String> rows = new ArrayList<>();
+    prefix.forEachRemaining(rows::add);
+    suffix.forEachRemaining(rows::add);
+
+    assertThat(prefix.estimateSize()).isZero();
+    assertThat(rows).containsExactly(
+        nameTower.rows("First Middle Last", 1, 6).toArray(String[]::new));
+  }
+
+  /**
+   * Test that a single row cannot be split.
+   */
+  @Test
+  void testThatSingleRowIsNotSplit() {
+    // Given: a Spliterator over one row
+    Spliterator<String> rows = spliterator("A", 1, 2);
+
+    // When: the Spliterator is split
+    // Then: there is nothing to split off
+    assertThat(rows.trySplit()).isNull();
+  }
+
+  private Spliterator<String> spliterator(String name, int fromRow,
+      int toRow) {
+    String upper = nameTower.toUpperCase(name);
+    RowBoundaries boundaries = RowBoundaries.of(upper);
+
+    return new TowerRowSpliterator(nameTower, upper, boundaries,
+        nameTower.maxRowWidth(upper, boundaries), fromRow, toRow);
+  }
+}
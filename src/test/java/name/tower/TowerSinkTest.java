@@ -0,0 +1,180 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TowerSinkTest {
+
+  private static final String[] NAMES = {"First Middle Last", "Ann",
+      "J\u00FCrgen M\u00FCller", "Stra\u00DFe", "\u5C71\u7530\u592A\u90CE",
+      "abcdefghijklmnopqrstuvwxyz".repeat(20), "Bo"};
+
+  private NameTower nameTower = new NameTower();
+
+  @TempDir
+  Path tempDir;
+
+  /**
+   * Returns every tower followed by a linefeed, the way the String form would
+   * be written.
+   */
+  private String expectedTowers() {
+    StringBuilder towers = new StringBuilder();
+
+    for(String name : NAMES) {
+      towers.append(nameTower.generateTower(name)).append('\n');
+    }
+
+    return towers.toString();
+  }
+
+  /**
+   * Test that the towers written to a file are the same as the String towers.
+   * The buffers are small, so the sink fills every buffer, flushes them
+   * together and writes the long name's tower through the spare buffer.
+   */
+  @Test
+  void testThatFileHoldsEveryTower() throws IOException {
+    // Given: a sink with three 64 byte buffers on a file
+    Path file = tempDir.resolve("towers.txt");
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE);
+
+    // When: every name is written and the sink is closed
+    try(TowerSink sink = new TowerSink(channel, new TowerRenderer(), 64, 3)) {
+      for(String name : NAMES) {
+        sink.write(name);
+      }
+    }
+
+    // Then: the file holds every tower in order
+    assertThat(Files.readString(file, StandardCharsets.UTF_8))
+        .isEqualTo(expectedTowers());
+    assertThat(channel.isOpen()).isFalse();
+  }
+
+  /**
+   * Test that the buffers are handed to the channel together in gathering
+   * writes, and that the channel is given nothing until the buffers are full
+   * or the sink is flushed.
+   */
+  @Test
+  void testThatFullBuffersAreWrittenTogether() throws IOException {
+    // Given: a sink with four buffers that each hold one short tower
+    RecordingChannel channel = new RecordingChannel();
+    TowerSink sink = new TowerSink(channel, new TowerRenderer(), 15, 4);
+
+    // When: five towers are written
+    for(int count = 0; count < 5; count++) {
+      sink.write("Ann");
+    }
+
+    // Then: the first four went out in one write of four buffers
+    assertThat(channel.buffersPerWrite).containsExactly(4);
+
+    // When: the sink is flushed
+    sink.flush();
+
+    // Then: the fifth went out on its own
+    assertThat(channel.buffersPerWrite).containsExactly(4, 1);
+    assertThat(channel.bytes.toString())
+        .isEqualTo((nameTower.generateTower("Ann") + "\n").repeat(5));
+  }
+
+  /**
+   * Test that a non-ASCII tower that exactly fills a buffer is put in it
+   * rather than through the spare buffer, since its size is known before it
+   * is rendered.
+   */
+  @Test
+  void testThatExactlyFittingTowerFillsBuffer() throws IOException {
+    // Given: two buffers that each hold exactly one tower and its linefeed
+    String name = "J\u00FCrgen M\u00FCller";
+    String tower = nameTower.generateTower(name) + "\n";
+    RecordingChannel channel = new RecordingChannel();
+    TowerSink sink = new TowerSink(channel, new TowerRenderer(),
+        tower.getBytes(StandardCharsets.UTF_8).length, 2);
+
+    // When: three towers are written
+    for(int count = 0; count < 3; count++) {
+      sink.write(name);
+    }
+
+    // Then: the first two filled both buffers and went out together
+    assertThat(channel.buffersPerWrite).containsExactly(2);
+
+    sink.flush();
+    assertThat(channel.bytes.toString()).isEqualTo(tower.repeat(3));
+  }
+
+  /**
+   * Test that a buffer size of less than one is rejected.
+   */
+  @Test
+  void testThatBufferSizeLessThanOneThrowsException() {
+    // Given: a buffer size of zero
+    int bufferSize = 0;
+
+    // When: the sink is created
+    // Then: an exception is thrown
+    assertThatThrownBy(() -> new TowerSink(new RecordingChannel(),
+        new TowerRenderer(), bufferSize, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * A channel that keeps what is written to it and records how many buffers
+   * each gathering write was given.
+   */
+  private static class RecordingChannel implements GatheringByteChannel {
+    private final StringBuilder bytes = new StringBuilder();
+    private final List<Integer> buffersPerWrite = new ArrayList<>();
+    private boolean open = true;
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      buffersPerWrite.add(length);
+      long written = 0;
+
+      for(int index = offset; index < offset + length; index++) {
+        written += write(srcs[index]);
+      }
+
+      return written;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int length = src.remaining();
+      bytes.append(StandardCharsets.UTF_8.decode(src));
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TowerTest {
+
+  private NameTower nameTower = new NameTower();
+
+  /**
+   * Test that every char, the length and the String form of the Tower match
+   * the rendered tower, both for names laid out by arithmetic and for names
+   * that are rendered up front.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "ab", "First Middle Last", "abcdefghij",
+      "a\nb\nc\nd\ne", "J\u00FCrgen Stra\u00DFe", "\u4E2D\u6587 name",
+      "\uD83D\uDE00x", "\u00FF \u00B5"})
+  void testThatTowerMatchesRenderedTower(String name) {
+    // Given: the rendered tower
+    String expected = nameTower.generateTower(name);
+
+    // When: the Tower is made
+    Tower tower = nameTower.tower(name);
+
+    // Then: it has the same chars
+    assertThat(tower.length()).isEqualTo(expected.length());
+
+    for(int index = 0; index < expected.length(); index++) {
+      assertThat(tower.charAt(index)).isEqualTo(expected.charAt(index));
+    }
+
+    assertThat(tower.chars().toArray()).isEqualTo(expected.chars().toArray());
+    assertThat(tower.toString()).isEqualTo(expected);
+  }
+
+  /**
+   * Test that each slice of a Tower matches the same slice of the rendered
+   * tower, through every way of reading it.
+   */
+  @Test
+  void testThatSubSequenceMatchesSubstring() {
+    // Given: a six row tower
+    String name = "Jurgen Strasse Mustermann Junior 42!";
+    String expected = nameTower.generateTower(name);
+    Tower tower = nameTower.tower(name);
+
+    for(int start = 0; start <= expected.length(); start += 3) {
+      for(int end = start; end <= expected.length(); end += 5) {
+        // When: a slice is taken
+        CharSequence slice = tower.subSequence(start, end);
+
+        // Then: it matches the substring
+        String substring = expected.substring(start, end);
+        assertThat(CharSequence.compare(slice, substring)).isZero();
+        assertThat(slice.chars().toArray())
+            .isEqualTo(substring.chars().toArray());
+        assertThat(slice.toString()).isEqualTo(substring);
+      }
+    }
+  }
+
+  /**
+   * Test that the Tower matches for every length from 1 to 2000, which takes
+   * the row arithmetic across many perfect squares.
+   */
+  @Test
+  void testThatTowerMatchesForEveryLength() {
+    for(int length = 1; length <= 2000; length++) {
+      // Given: a name of the length
+      String name = "ab c".repeat(500).substring(0, length);
+
+      // When: the Tower is made
+      Tower tower = nameTower.tower(name);
+
+      // Then: it matches the rendered tower
+      assertThat(tower.toString()).isEqualTo(nameTower.generateTower(name));
+    }
+  }
+
+  /**
+   * Test that the String form is built once and kept.
+   */
+  @Test
+  void testThatStringIsMemoized() {
+    // Given: a Tower
+    Tower tower = nameTower.tower("First Middle Last");
+
+    // When: the String form is asked for twice
+    String first = tower.toString();
+    String second = tower.toString();
+
+    // Then: it is the same String
+    assertThat(second).isSameAs(first);
+  }
+
+  /**
+   * Test that the hash code of a Tower is that of its String form, whether it
+   * is worked out before or after the String is built.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"A", "First Middle Last", "J\u00FCrgen Stra\u00DFe",
+      "\uD83D\uDE00x"})
+  void testThatHashCodeMatchesString(String name) {
+    // Given: the rendered tower and two Towers for the name
+    String expected = nameTower.generateTower(name);
+    Tower unbuilt = nameTower.tower(name);
+    Tower built = nameTower.tower(name);
+    built.toString();
+
+    // When/Then: both hash the same as the String
+    assertThat(unbuilt.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(built.hashCode()).isEqualTo(expected.hashCode());
+  }
+
+  /**
+   * Test that Towers with the same chars are equal however they were made,
+   * and that a Tower is not equal to a String.
+   */
+  @Test
+  void testThatTowersWithSameCharsAreEqual() {
+    // Given: a Tower, a slice of it and a Tower read from the same slice
+    String name = "Jurgen Strasse Mustermann";
+    String expected = nameTower.generateTower(name);
+    Tower tower = nameTower.tower(name);
+    Tower slice = tower.subSequence(4, 20);
+    Tower rendered = Tower.rendered(expected.substring(4, 20));
+
+    // When/Then: the ones with the same chars are equal
+    assertThat(tower).isEqualTo(nameTower.tower(name));
+    assertThat(slice).isEqualTo(rendered).hasSameHashCodeAs(rendered);
+    assertThat(rendered).isEqualTo(slice);
+    assertThat(slice).isNotEqualTo(tower.subSequence(5, 21));
+    assertThat(tower).isNotEqualTo(expected);
+  }
+
+  /**
+   * Test that a big tower can be read without being built.
+   */
+  @Test
+  void testThatBigTowerIsReadWithoutBuildingIt() {
+    // Given: a name that makes a tower of about 24 million chars
+    String name = "abc ".repeat(2_000_000);
+
+    // When: the end of the tower is read
+    Tower tower = nameTower.tower(name);
+    CharSequence end = tower.subSequence(tower.length() - 5, tower.length());
+
+    // Then: it is the asterisks that fill out the last row
+    assertThat(tower.length()).isEqualTo(NameTower.outputLength(8_000_000));
+    assertThat(end.toString()).isEqualTo("* * *");
+  }
+
+  /**
+   * Test that the locale and the centering are followed.
+   */
+  @Test
+  void testThatLocaleAndCenteringAreUsed() {
+    // Given: a Turkish NameTower and one that centers by display width
+    NameTower turkish = new NameTower(new Locale("tr", "TR"));
+    NameTower byWidth =
+        new NameTower(Locale.ROOT, NameTower.Centering.DISPLAY_WIDTH);
+
+    // When/Then: each Tower matches its rendered tower
+    assertThat(turkish.tower("istanbul").toString())
+        .isEqualTo(turkish.generateTower("istanbul"));
+    assertThat(byWidth.tower("\u4E2D\u6587 name").toString())
+        .isEqualTo(byWidth.generateTower("\u4E2D\u6587 name"));
+    assertThat(byWidth.tower("First Middle Last").toString())
+        .isEqualTo(nameTower.generateTower("First Middle Last"));
+  }
+
+  /**
+   * Test that indexes outside the Tower are refused.
+   */
+  @Test
+  void testThatIndexOutsideTowerThrowsException() {
+    // Given: a Tower
+    Tower tower = nameTower.tower("First Middle Last");
+
+    // When/Then: reading outside it throws
+    assertThatThrownBy(() -> tower.charAt(tower.length()))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> tower.charAt(-1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> tower.subSequence(2, 1))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
@@ -0,0 +1,65 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class UpperCaseReaderTest {
+
+  /**
+   * Test that a name read in blocks is uppercased exactly as it would be in
+   * one piece, when the block boundaries fall inside runs of combining marks
+   * and surrogate pairs.
+   */
+  @Test
+  void testThatBlocksAreCutWhereUppercasingIsUnchanged() throws IOException {
+    // Given: Lithuanian, which drops a dot above after an i, and names that
+    // put a dotted i, a run of marks or a surrogate pair on every boundary
+    Locale lithuanian = new Locale("lt", "LT");
+    String[] units = {"i\u0307", "\u0301\u0302", "\uD83D\uDE00", "\u00DF"};
+
+    for(int shift = 0; shift < 4; shift++) {
+      for(String unit : units) {
+        String name = "x".repeat(UpperCaseReader.BLOCK_SIZE - shift)
+            + unit.repeat(3 * UpperCaseReader.BLOCK_SIZE);
+
+        // When: the name is read a code point at a time
+        String read = read(new UpperCaseReader(new StringReader(name),
+            lithuanian));
+
+        // Then: it matches String.toUpperCase()
+        assertThat(read).isEqualTo(name.toUpperCase(lithuanian));
+      }
+    }
+  }
+
+  /**
+   * Test that an empty name has no code points.
+   */
+  @Test
+  void testThatEmptyNameEndsAtOnce() throws IOException {
+    // Given: an empty name
+    UpperCaseReader reader =
+        new UpperCaseReader(new StringReader(""), Locale.ROOT);
+
+    // When/Then: the end is reached at once, and stays reached
+    assertThat(reader.read()).isEqualTo(-1);
+    assertThat(reader.read()).isEqualTo(-1);
+  }
+
+  /**
+   * Read every code point left in the reader.
+   */
+  private static String read(UpperCaseReader reader) throws IOException {
+    StringBuilder builder = new StringBuilder();
+
+    for(int codePoint = reader.read(); codePoint >= 0;
+        codePoint = reader.read()) {
+      builder.appendCodePoint(codePoint);
+    }
+
+    return builder.toString();
+  }
+}
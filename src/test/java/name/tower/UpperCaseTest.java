@@ -0,0 +1,84 @@
+package name.tower;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class UpperCaseTest {
+
+  /**
+   * Test that the table and the slow path together give the same result as
+   * String.toUpperCase() for every code point, both for a whole name and when
+   * read one code point at a time.
+   */
+  @Test
+  void testThatEveryCodePointMatchesToUpperCase() {
+    for(int codePoint = 0; codePoint <= Character.MAX_CODE_POINT;
+        codePoint++) {
+      // Given: a name holding the code point between Latin-1 characters
+      String name = "a" + Character.toString(codePoint) + "b";
+      String expected = name.toUpperCase(Locale.ROOT);
+
+      // When: the name is uppercased both ways
+      String upper = UpperCase.toUpperCase(name, Locale.ROOT);
+      String read = read(new UpperCase.Cursor(name, Locale.ROOT));
+
+      // Then: both match String.toUpperCase()
+      assertThat(upper).isEqualTo(expected);
+      assertThat(read).isEqualTo(expected);
+      assertThat(UpperCase.codePointCount(name, Locale.ROOT))
+          .isEqualTo(expected.codePointCount(0, expected.length()));
+    }
+  }
+
+  /**
+   * Test that characters that expand take the slow path and come out whole.
+   */
+  @Test
+  void testThatExpandingCharactersAreUppercased() {
+    // Given: a sharp s, an "fi" ligature and an n preceded by an apostrophe
+    String name = "stra\u00DFe \uFB01sh \u0149";
+
+    // When: the name is uppercased
+    String upper = UpperCase.toUpperCase(name, Locale.GERMANY);
+
+    // Then: each expands
+    assertThat(upper).isEqualTo("STRASSE FISH \u02BCN");
+    assertThat(UpperCase.toUpperCase(0xDF)).isEqualTo(UpperCase.EXPANDS);
+    assertThat(UpperCase.expand(0xFB01)).isEqualTo("FI");
+  }
+
+  /**
+   * Test that locales with their own uppercasing rules are handed to
+   * String.toUpperCase().
+   */
+  @Test
+  void testThatLocalesWithOwnRulesAreUsed() {
+    // Given: Turkish and Lithuanian names
+    Locale turkish = new Locale("tr", "TR");
+    Locale lithuanian = new Locale("lt", "LT");
+    String dotted = "i\u0307";
+
+    // When: the names are uppercased
+    // Then: the rules of each locale apply
+    assertThat(UpperCase.isTableUsable(turkish)).isFalse();
+    assertThat(UpperCase.isTableUsable(lithuanian)).isFalse();
+    assertThat(UpperCase.toUpperCase("istanbul", turkish))
+        .isEqualTo("\u0130STANBUL");
+    assertThat(UpperCase.toUpperCase(dotted, lithuanian)).isEqualTo("I");
+    assertThat(read(new UpperCase.Cursor(dotted, lithuanian))).isEqualTo("I");
+  }
+
+  /**
+   * Read every code point from the cursor.
+   */
+  private String read(UpperCase.Cursor cursor) {
+    StringBuilder read = new StringBuilder();
+
+    while(cursor.hasNext()) {
+      read.appendCodePoint(cursor.nextInt());
+    }
+
+    return read.toString();
+  }
+}